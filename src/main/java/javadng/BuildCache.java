@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import kiss.I;
+
+/**
+ * Persistent fingerprint store for the incremental site generation. It records the fingerprint of
+ * the inputs which were used to generate each output file, so the next build can reuse the
+ * unchanged files as they are.
+ */
+public class BuildCache {
+
+    /** The cache file. */
+    private final Path file;
+
+    /** The fingerprints recorded by the previous build. */
+    private final Map<String, String> previous = new ConcurrentHashMap();
+
+    /** The fingerprints recorded by the current build. */
+    private final Map<String, String> current = new ConcurrentHashMap();
+
+    /**
+     * @param file The cache file.
+     */
+    BuildCache(Path file) {
+        this.file = file;
+
+        if (Files.isRegularFile(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    int index = line.indexOf('\t');
+                    if (index != -1) {
+                        previous.put(line.substring(0, index), line.substring(index + 1));
+                    }
+                }
+            } catch (IOException e) {
+                // broken cache, rebuild all
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * Determines if the previous build has not recorded anything.
+     *
+     * @return
+     */
+    boolean isEmpty() {
+        return previous.isEmpty();
+    }
+
+    /**
+     * Test whether the specified output was generated from the same inputs in the previous build.
+     *
+     * @param path A path to the output file.
+     * @param fingerprint A fingerprint of the current inputs.
+     * @return
+     */
+    boolean isFresh(String path, String fingerprint) {
+        return fingerprint != null && fingerprint.equals(previous.get(path));
+    }
+
+    /**
+     * Record the fingerprint of the specified output.
+     *
+     * @param path A path to the output file.
+     * @param fingerprint A fingerprint of the current inputs.
+     */
+    void record(String path, String fingerprint) {
+        current.put(path, fingerprint);
+    }
+
+    /**
+     * List up all outputs which were generated by the previous build but not by the current build.
+     *
+     * @return
+     */
+    Set<String> stale() {
+        Set<String> stale = new TreeMap(previous).keySet();
+        stale.removeAll(current.keySet());
+        return stale;
+    }
+
+    /**
+     * Write the current fingerprints to the cache file.
+     */
+    void store() {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap(current).forEach((path, fingerprint) -> builder.append(path).append('\t').append(fingerprint).append('\n'));
+
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, builder, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Compute the fingerprint of the specified values.
+     *
+     * @param values A list of values to digest.
+     * @return A hexadecimal fingerprint.
+     */
+    public static String hash(Object... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object value : values) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Compute the fingerprint of the contents of the specified file.
+     *
+     * @param file A file to digest.
+     * @return A hexadecimal fingerprint.
+     */
+    public static String digest(Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int size;
+            while ((size = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, size);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw I.quiet(e);
+        }
+    }
+}
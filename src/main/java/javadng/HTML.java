@@ -9,7 +9,10 @@
  */
 package javadng;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javadng.design.Styles;
 import kiss.XML;
@@ -20,24 +23,63 @@ import stylist.Style;
  */
 public abstract class HTML extends lycoris.HTML {
 
+    /** The associated site builder. */
+    SiteBuilder site;
+
+    /** The lazily declared components. */
+    final List<HTML> streams = new ArrayList();
+
     protected final Consumer<XML> svg(String type) {
         return parent -> {
             $("svg", attr("viewBox", "0 0 24 24"), attr("class", type), Styles.AnimatedSVG, () -> {
-                $("use", attr("href", "main.svg#" + type));
+                $("use", attr("href", asset("main.svg") + "#" + type));
             });
         };
     }
 
+    /**
+     * Resolve the actual path of the content-hashed asset.
+     * 
+     * @param path A path to the asset without hash.
+     * @return
+     */
+    protected final String asset(String path) {
+        return site == null ? path : site.asset(path);
+    }
+
     protected final Consumer<XML> togglable(Style style) {
         return attr("onClick", "this.classList.toggle('" + style.className()[0] + "')");
     }
 
     /**
-     * Build JSONP file and return the path of the generated file.
+     * Build JSONP file (only once per build) and declare the script which refers to it.
      * 
-     * @param model A style definition class to write.
+     * @param path A path to the generated file.
+     * @param model A model to write.
      */
     protected final void script(String path, Object model) {
-        $("script", attr("src", SiteBuilder.current.buildJSONP(path, model)));
+        $("script", attr("src", site.buildJSONP(path, model)));
+    }
+
+    /**
+     * Build JSONP file (only once per build) and declare the script which refers to it.
+     * 
+     * @param path A path to the generated file.
+     * @param model A lazy model to write, it is created only once per build.
+     */
+    protected final void script(String path, Supplier<?> model) {
+        $("script", attr("src", site.buildJSONP(path, model)));
+    }
+
+    /**
+     * Declare the component which is declared and serialized only when the output reaches its
+     * position. Only the placeholder element is kept in this tree, so the component tree can be
+     * released as soon as it is written.
+     * 
+     * @param component A lazy component.
+     */
+    protected final void stream(HTML component) {
+        $("javadng-stream", attr("ref", String.valueOf(streams.size())));
+        streams.add(component);
     }
 }
\ No newline at end of file
@@ -9,10 +9,31 @@
  */
 package javadng;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import kiss.I;
 import kiss.XML;
@@ -25,9 +46,6 @@ import stylist.Stylist;
 
 public class SiteBuilder {
 
-    /** GUILTY ACCESSOR */
-    static SiteBuilder current;
-
     /**
      * Configure root directory.
      * 
@@ -67,12 +85,26 @@ public class SiteBuilder {
     /** The initial protectable file pattern. */
     private List<String> protectable = I.list("!**@.*");
 
+    /** The fingerprint store for incremental build. (nullable) */
+    private BuildCache cache;
+
+    /** The built shared assets. (path - generated path) */
+    private final Map<String, CompletableFuture<String>> shared = new ConcurrentHashMap();
+
+    /** The content-hashed assets. (path - hashed path) */
+    private final Map<String, String> assets = new ConcurrentHashMap();
+
+    /** The minimum size of file to compress. (negative means no compression) */
+    private int compressThreshold = -1;
+
+    /** The precompressed variants. */
+    private Encoding[] encodings = {};
+
     /**
      * @param rootDirectory
      */
     private SiteBuilder(Directory rootDirectory) {
         this.root = Objects.requireNonNull(rootDirectory);
-        current = this;
     }
 
     /**
@@ -82,8 +114,13 @@ public class SiteBuilder {
         if (initialized == false) {
             initialized = true;
 
-            // delete all existing files
-            root.create().delete(protectable.toArray(String[]::new));
+            // delete all existing files unless the previous build can be reused
+            if (cache == null || cache.isEmpty()) {
+                root.create().delete(protectable.toArray(String[]::new));
+            } else {
+                root.create();
+                return;
+            }
 
             // There is a time lag until the OS releases the handle of the deleted file, so wait a
             // little. AccessDeniedException may occur when going straight.
@@ -110,6 +147,37 @@ public class SiteBuilder {
         return this;
     }
 
+    /**
+     * Enable the incremental build. The fingerprint of each generated page is stored in the
+     * specified file, and the page which is built from the same fingerprint is reused as it is.
+     * 
+     * @param path A path to the cache file.
+     * @return
+     */
+    public final SiteBuilder cache(String path) {
+        if (path != null && path.length() != 0) {
+            guard(path);
+            cache = new BuildCache(root.file(path).asJavaPath());
+        }
+        return this;
+    }
+
+    /**
+     * Write the precompressed variants (e.g. "main.js.gz") of all HTML, CSS, JS, JSON and SVG files
+     * larger than the specified size at the completion of build. The files are compressed in
+     * parallel, and the variant whose source is not changed from the previous build is reused in
+     * the incremental build.
+     * 
+     * @param threshold The minimum size of file to compress. (bytes)
+     * @param encodings The variants to write. GZIP is used if nothing is specified.
+     * @return
+     */
+    public final SiteBuilder compress(int threshold, Encoding... encodings) {
+        this.compressThreshold = Math.max(0, threshold);
+        this.encodings = encodings == null || encodings.length == 0 ? new Encoding[] {Encoding.GZIP} : encodings.clone();
+        return this;
+    }
+
     private static final String[] characterType = {"figcaption", "figure", "a", "abbr", "b", "bdi", "bdo", "cite", "code", "data", "dfn",
             "em", "i", "kbd", "mark", "q", "rb", "rp", "rt", "rtc", "s", "samp", "span", "strong", "sub", "sup", "time", "u", "var", "del",
             "ins", "&script", "&nav", "&article", "&aside", "&dl", "&div", "&i", "&td"};
@@ -123,17 +191,217 @@ public class SiteBuilder {
     public final void buildHTML(String path, HTML html) {
         initialize();
 
+        html.site = this;
         html.declare();
 
         root.file(path).write(output -> {
             output.append("<!DOCTYPE html>\r\n");
 
-            for (XML node : html.root) {
-                node.to(output, "\t", characterType);
-            }
+            write(output, html);
         });
     }
 
+    /** The placeholder of the streamed component. */
+    private static final Pattern STREAM = Pattern.compile("<javadng-stream ref=\"(\\d+)\"\\s*(?:/>|>\\s*</javadng-stream>)");
+
+    /** The element name to indent the streamed component. */
+    private static final String INDENT = "javadng-indent";
+
+    /**
+     * Write the declared HTML. The streamed components are declared and serialized one by one at
+     * their placeholders, and released immediately.
+     * 
+     * @param output
+     * @param html A declared HTML.
+     */
+    private void write(Appendable output, HTML html) {
+        write(output, html, 0);
+    }
+
+    /**
+     * Write the declared HTML at the specified depth. The component is serialized in the nested
+     * dummy elements, so it is indented as if it were declared at the position of its placeholder.
+     * 
+     * @param output
+     * @param html A declared HTML.
+     * @param depth The depth of the placeholder.
+     */
+    private void write(Appendable output, HTML html, int depth) {
+        try {
+            if (html.streams.isEmpty() && depth == 0) {
+                for (XML node : html.root) {
+                    node.to(output, "\t", characterType);
+                }
+                return;
+            }
+
+            XML root = html.root;
+            if (depth != 0) {
+                root = I.xml("<" + INDENT + "/>");
+                XML inner = root;
+                for (int i = 1; i < depth; i++) {
+                    inner = inner.child(INDENT);
+                }
+                inner.append(html.root);
+            }
+
+            StringBuilder skeleton = new StringBuilder();
+            for (XML node : root) {
+                node.to(skeleton, "\t", characterType);
+            }
+
+            int start = 0;
+            int end = skeleton.length();
+            if (depth != 0) {
+                // the indent before the placeholder is already written, the one after it is written
+                // by the parent skeleton
+                start = skeleton.lastIndexOf("<" + INDENT + ">");
+                end = skeleton.indexOf("</" + INDENT + ">");
+                if (start == -1 || end == -1 || skeleton.indexOf("<" + INDENT + "/>") != -1) {
+                    return; // empty component
+                }
+                start += INDENT.length() + 2;
+                while (start < end && Character.isWhitespace(skeleton.charAt(start))) start++;
+                while (start < end && Character.isWhitespace(skeleton.charAt(end - 1))) end--;
+            }
+
+            int last = start;
+            Matcher matcher = STREAM.matcher(skeleton).region(start, end);
+            while (matcher.find()) {
+                output.append(skeleton, last, matcher.start());
+                last = matcher.end();
+
+                HTML component = html.streams.set(Integer.parseInt(matcher.group(1)), null);
+                component.site = this;
+                component.declare();
+                write(output, component, depth(skeleton, matcher.start()));
+            }
+            output.append(skeleton, last, end);
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Compute the depth of the placeholder from its indent.
+     * 
+     * @param skeleton A serialized skeleton.
+     * @param index The start position of the placeholder.
+     * @return The number of indents, zero if the placeholder isn't placed at the head of line.
+     */
+    private static int depth(CharSequence skeleton, int index) {
+        int depth = 0;
+        while (0 < index && skeleton.charAt(index - 1) == '\t') {
+            depth++;
+            index--;
+        }
+        return index == 0 || skeleton.charAt(index - 1) == '\n' ? depth : 0;
+    }
+
+    /**
+     * Build HTML file only if the specified fingerprint was changed from the previous build.
+     * 
+     * @param path
+     * @param fingerprint A fingerprint of all inputs which affect the output.
+     * @param html A lazy HTML builder.
+     * @return true if the file was (re)built, false if the previous file was reused.
+     */
+    public final boolean buildHTML(String path, String fingerprint, Supplier<? extends HTML> html) {
+        if (cache == null) {
+            buildHTML(path, html.get());
+            return true;
+        }
+
+        initialize();
+        cache.record(path, fingerprint);
+
+        if (cache.isFresh(path, fingerprint) && root.file(path).isPresent()) {
+            return false;
+        }
+        buildHTML(path, html.get());
+        return true;
+    }
+
+    /**
+     * Complete the build. The files which were built by the previous build but not by this build
+     * are deleted, the precompressed variants are written if needed, then the current fingerprints
+     * are stored.
+     */
+    public final void complete() {
+        if (cache != null) {
+            for (String path : cache.stale()) {
+                if (!Encoding.isVariant(path)) root.file(path).delete();
+            }
+        }
+
+        if (compressThreshold != -1) {
+            compress();
+        }
+
+        if (cache != null) {
+            // the variants of the deleted files are also stale
+            for (String path : cache.stale()) {
+                root.file(path).delete();
+            }
+            cache.store();
+        }
+    }
+
+    /**
+     * Write the precompressed variants of all compressible files in parallel.
+     */
+    private void compress() {
+        Path base = root.asJavaPath();
+
+        try (Stream<Path> files = Files.walk(base)) {
+            files.filter(Files::isRegularFile).toList().parallelStream().forEach(file -> {
+                String relative = base.relativize(file).toString().replace('\\', '/');
+                if (relative.startsWith(".") || relative.contains("/.") || !OFFLINE.contains(extension(relative))) {
+                    return;
+                }
+
+                try {
+                    if (Files.size(file) < compressThreshold) {
+                        return;
+                    }
+
+                    String digest = BuildCache.digest(file);
+                    for (Encoding encoding : encodings) {
+                        String path = relative + encoding.extension;
+                        Path variant = base.resolve(path);
+
+                        if (cache != null && cache.isFresh(path, digest) && Files.isRegularFile(variant)) {
+                            // mark as up-to-date against the rewritten source
+                            Files.setLastModifiedTime(variant, FileTime.from(Instant.now()));
+                        } else {
+                            Path temporary = variant.resolveSibling(variant.getFileName() + ".tmp");
+                            try (OutputStream output = encoding.open(Files.newOutputStream(temporary))) {
+                                Files.copy(file, output);
+                            }
+                            Files.move(temporary, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        }
+                        if (cache != null) cache.record(path, digest);
+                    }
+                } catch (IOException e) {
+                    throw I.quiet(e);
+                }
+            });
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Compute the extension of the specified path.
+     * 
+     * @param path
+     * @return
+     */
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot <= path.lastIndexOf('/') ? "" : path.substring(dot + 1);
+    }
+
     /**
      * Build CSS file and return the path of the generated file.
      * 
@@ -212,16 +480,268 @@ public class SiteBuilder {
     }
 
     /**
-     * Build JSON file with padding.
+     * Build JSON file with padding only once and return the path of the generated file.
      */
     public final String buildJSONP(String path, Object object) {
+        return buildJSONP(path, () -> object);
+    }
+
+    /**
+     * Build JSON file with padding only once and return the path of the generated file. The model
+     * is created only when the file is actually built.
+     */
+    public final String buildJSONP(String path, Supplier<?> object) {
+        return buildOnce(path, () -> {
+            File file = root.file(path);
+            file.write(output -> {
+                output.append("const " + file.base() + " = ");
+                I.write(object.get(), output);
+            });
+            return root.relativize(file).path();
+        });
+    }
+
+    /**
+     * Build JSON file and return the path of the generated file. In the incremental build, the
+     * file is not rewritten if its contents are not changed.
+     * 
+     * @param path A path to the generated file.
+     * @param object A model to write.
+     * @return A path to the generated file.
+     */
+    public final String buildJSON(String path, Object object) {
+        initialize();
+
+        StringBuilder json = new StringBuilder();
+        I.write(object, json);
+
+        File file = root.file(path);
+        String fingerprint = BuildCache.hash(json);
+        if (cache == null || !cache.isFresh(path, fingerprint) || !file.isPresent()) {
+            file.write(output -> output.append(json));
+        }
+        if (cache != null) cache.record(path, fingerprint);
+
+        return root.relativize(file).path();
+    }
+
+    /** The file types which are cached by the service worker or compressed. */
+    private static final Set<String> OFFLINE = Set.of("html", "css", "js", "json", "svg");
+
+    /**
+     * Build the service worker and its manifest. The manifest lists up the content hash of all
+     * offline-able files (HTML, CSS, JS, JSON and SVG) in this site, and the service worker caches
+     * each file by its hash. So the changed files are fetched again but others are served from the
+     * cache even if the network is not available. The manifest is written next to the service
+     * worker as "offline.json". This method must be called after all other files are built, and
+     * before {@link #complete()}.
+     * 
+     * @param path A path to the service worker.
+     * @param worker The service worker template.
+     * @param shell The paths of files which are cached at the installation.
+     * @return A path to the generated file.
+     */
+    public final String buildServiceWorker(String path, InputStream worker, String... shell) {
         initialize();
 
+        String manifestPath = path.substring(0, path.lastIndexOf('/') + 1) + "offline.json";
+        Set<String> stale = cache == null ? Set.of() : cache.stale();
+        Path base = root.asJavaPath();
+        Map<String, String> manifest = new TreeMap();
+
+        try (Stream<Path> files = Files.walk(base)) {
+            files.filter(Files::isRegularFile).toList().parallelStream().forEach(entry -> {
+                String relative = base.relativize(entry).toString().replace('\\', '/');
+
+                if (!relative.startsWith(".") && !relative.contains("/.") && OFFLINE.contains(extension(relative)) && !stale.contains(relative)) {
+                    String digest = BuildCache.digest(entry);
+                    synchronized (manifest) {
+                        manifest.put(relative, digest);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+        manifest.remove(path);
+        manifest.remove(manifestPath);
+
+        String json = json(manifest);
+        root.file(manifestPath).write(output -> output.append(json));
+
+        StringJoiner shells = new StringJoiner("\", \"", "[\"", "\"]").setEmptyValue("[]");
+        for (String item : shell) {
+            if (manifest.containsKey(item)) shells.add(item);
+        }
+
         File file = root.file(path);
         file.write(output -> {
-            output.append("const " + file.base() + " = ");
-            I.write(object, output);
+            output.append("const version = \"" + BuildCache.hash(json) + "\", shell = " + shells + ";\n");
+            try (InputStream input = worker) {
+                output.append(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            }
         });
         return root.relativize(file).path();
     }
+
+    /**
+     * Build the asset under the content-hashed name (e.g. main.3f9a1c0d.css) and return the path
+     * of the generated file. Since the name is derived only from the contents, the unchanged asset
+     * keeps the same name across builds and its file is not rewritten. The pages refer the asset
+     * by {@link #asset(String)}.
+     * 
+     * @param path A path to the asset without hash.
+     * @param contents The contents of the asset.
+     * @return A path to the generated file.
+     */
+    public final String buildAsset(String path, String contents) {
+        initialize();
+
+        String hash = BuildCache.hash(contents).substring(0, 8);
+        int dot = path.lastIndexOf('.');
+        String hashed = dot <= path.lastIndexOf('/') ? path + "." + hash : path.substring(0, dot) + "." + hash + path.substring(dot);
+
+        File file = root.file(hashed);
+        if (!file.isPresent()) {
+            file.write(output -> output.append(contents));
+        }
+        if (cache != null) cache.record(hashed, hash);
+        assets.put(path, hashed);
+
+        return hashed;
+    }
+
+    /**
+     * Resolve the actual path of the content-hashed asset.
+     * 
+     * @param path A path to the asset without hash.
+     * @return A path to the generated file, or the specified path if it is not hashed.
+     */
+    public final String asset(String path) {
+        return assets.getOrDefault(path, path);
+    }
+
+    /**
+     * Build the manifest of all content-hashed assets which maps the original path to the hashed
+     * path.
+     * 
+     * @param path A path to the manifest.
+     * @return A path to the generated file.
+     */
+    public final String buildAssetManifest(String path) {
+        initialize();
+
+        String json = json(new TreeMap(assets));
+        File file = root.file(path);
+        file.write(output -> output.append(json));
+        return root.relativize(file).path();
+    }
+
+    /**
+     * Write the flat string map as JSON.
+     * 
+     * @param map A sorted map.
+     * @return
+     */
+    private static String json(Map<String, String> map) {
+        StringJoiner json = new StringJoiner(",\n", "{\n", "\n}");
+        map.forEach((key, value) -> json.add("\"" + key + "\": \"" + value + "\""));
+        return json.toString();
+    }
+
+    /**
+     * Build the asset which is shared by many pages only once in this build. The first call
+     * builds the asset and the subsequent calls with the same path reuse the result of the first
+     * call without building again. The concurrent callers wait for the first call, the asset is
+     * built outside of the map so that the builder can build other shared assets.
+     * 
+     * @param path A path to the shared asset.
+     * @param builder An actual asset builder which returns the path of the generated file.
+     * @return A path to the generated file.
+     */
+    public final String buildOnce(String path, Supplier<String> builder) {
+        initialize();
+
+        CompletableFuture<String> future = new CompletableFuture();
+        CompletableFuture<String> built = shared.putIfAbsent(path, future);
+        if (built != null) {
+            try {
+                return built.join();
+            } catch (CompletionException e) {
+                throw I.quiet(e.getCause());
+            }
+        }
+
+        try {
+            String generated = builder.get();
+            future.complete(generated);
+            return generated;
+        } catch (Throwable e) {
+            // the failed build can be retried by the next call
+            shared.remove(path, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * The precompressed variant.
+     */
+    public enum Encoding {
+
+        /** The gzip variant. ("*.gz") */
+        GZIP(".gz"),
+
+        /** The deflate (zlib) variant. ("*.deflate") */
+        DEFLATE(".deflate");
+
+        /** The file extension. */
+        private final String extension;
+
+        /**
+         * @param extension
+         */
+        private Encoding(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Create the compressing stream.
+         * 
+         * @param output
+         * @return
+         * @throws IOException
+         */
+        private OutputStream open(OutputStream output) throws IOException {
+            return switch (this) {
+            case GZIP -> new GZIPOutputStream(output, 8192);
+            case DEFLATE -> new DeflaterOutputStream(output, new Deflater(Deflater.BEST_COMPRESSION), 8192) {
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+            };
+        }
+
+        /**
+         * Test whether the specified path is a precompressed variant or not.
+         * 
+         * @param path
+         * @return
+         */
+        private static boolean isVariant(String path) {
+            for (Encoding encoding : values()) {
+                if (path.endsWith(encoding.extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
\ No newline at end of file
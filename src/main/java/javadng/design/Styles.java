@@ -690,41 +690,18 @@ public class Styles implements JavadngStyleDSL {
         border.color(Color.rgb(60, 60, 60, 0.26)).width(1, px).solid().radius(JavadngStyleDSL.Theme.radius);
     });
 
-    public static final Style Tree = Style.named(".tree", () -> {
+    public static final Style SearchResult = Style.named(".results", () -> {
         overflow.scrollbar.thin().x.hidden().y.auto();
-        display.height(70, dvh);
-        background.color(Color.Inherit);
-
-        $.select("dl", () -> {
-            padding.bottom(0.5, em);
-
-            $.with(".show dd", () -> {
-                display.block();
-            });
-            $.with(".expand dd", () -> {
-                display.block();
-            });
-        });
+        display.maxHeight(30, dvh);
+        margin.vertical(0.5, em);
+        padding.bottom(0.5, em);
+        border.bottom.solid().width(1, px).color(JavadngStyleDSL.Theme.front.opacify(-0.6));
 
-        $.select("dt", () -> {
-            font.weight.bold();
+        $.select("li", () -> {
+            listStyle.none();
             text.whiteSpace.nowrap().unselectable();
             border.radius(JavadngStyleDSL.Theme.radius);
             padding.horizontal(0.5, em).vertical(0.15, em);
-            cursor.pointer();
-
-            $.hover(() -> {
-                font.color(JavadngStyleDSL.Theme.accent);
-                background.color(JavadngStyleDSL.Theme.surface);
-            });
-        });
-
-        $.select("dd", () -> {
-            display.none();
-            text.whiteSpace.nowrap().unselectable();
-            border.radius(JavadngStyleDSL.Theme.radius);
-            padding.horizontal(0.5, em);
-            cursor.pointer();
 
             $.hover(() -> {
                 font.color(JavadngStyleDSL.Theme.accent);
@@ -736,14 +713,53 @@ public class Styles implements JavadngStyleDSL {
 
                 $.child(() -> {
                     display.inlineBlock().width(100, percent);
-                    padding.vertical(0.15, em);
                     text.decoration.none();
+                });
+            });
+        });
+    });
+
+    public static final Style Tree = Style.named(".tree", () -> {
+        overflow.scrollbar.thin().x.hidden().y.auto();
+        display.height(70, dvh);
+        background.color(Color.Inherit);
+        position.relative();
+
+        $.select(".rows", () -> {
+            position.absolute().top(0, px).left(0, px).right(0, px);
 
-                    $.hover(() -> {
+            $.select(">div", () -> {
+                // all rows have the fixed height for virtual scrolling
+                display.block().height(26, px);
+                font.lineHeight(26, px);
+                text.whiteSpace.nowrap().unselectable();
+                border.radius(JavadngStyleDSL.Theme.radius);
+                padding.horizontal(0.5, em);
+                overflow.hidden();
+                cursor.pointer();
+
+                $.hover(() -> {
+                    font.color(JavadngStyleDSL.Theme.accent);
+                    background.color(JavadngStyleDSL.Theme.surface);
+                });
+
+                $.child(() -> {
+                    display.inlineBlock().width(100, percent);
+
+                    $.child(() -> {
+                        display.inlineBlock().width(100, percent);
                         text.decoration.none();
+
+                        $.hover(() -> {
+                            text.decoration.none();
+                        });
                     });
                 });
             });
         });
+
+        $.select(".pack", () -> {
+            font.weight.bold();
+        });
     });
 }
\ No newline at end of file
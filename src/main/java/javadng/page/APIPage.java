@@ -92,111 +92,18 @@ public class APIPage extends Page<ClassInfo> {
         });
 
         for (FieldInfo field : contents.fields()) {
-            writeMember(field);
+            stream(new MemberSection(field));
         }
 
         for (ExecutableInfo constructor : contents.constructors()) {
-            writeMember(constructor);
+            stream(new MemberSection(constructor));
         }
 
         for (MethodInfo method : contents.methods()) {
-            writeMember(method);
+            stream(new MemberSection(method));
         }
     }
 
-    /**
-     * Write HTML for each members.
-     * 
-     * @param member
-     */
-    private void writeMember(FieldInfo member) {
-        $("section", id(member.id()), Styles.Section, () -> {
-            $("h2", S.MemberName, () -> {
-                XML type = member.createType();
-
-                $(member.createModifier());
-                $("code", S.Name, text(member.name));
-                if (type != null) $("i", S.Return, type);
-            });
-
-            $(member.document());
-
-            List<SampleInfo> list = model.samples.get(contents.id() + "#" + member.id());
-            if (list != null) {
-                for (SampleInfo sample : list) {
-                    $("pre", clazz("lang-java"), () -> {
-                        $("code", text(sample.code));
-                    });
-                }
-            }
-        });
-    }
-
-    /**
-     * Write HTML for each members.
-     * 
-     * @param member
-     */
-    private void writeMember(ExecutableInfo member) {
-        $("section", id(member.id()), Styles.Section, () -> {
-            $("h2", S.MemberName, () -> {
-                XML type = member.createReturnType();
-
-                $(member.createModifier());
-                $("code", S.Name, text(member.name));
-                $(member.createParameter());
-                if (type != null) $("i", S.Return, type);
-            });
-
-            int types = member.numberOfTypeVariables();
-            int params = member.numberOfParameters();
-            int returns = member.returnVoid() ? 0 : 1;
-            int exceptions = member.numberOfExceptions();
-
-            if (0 < types + params + returns + exceptions) {
-                $("table", S.SignatureTable, () -> {
-                    IntStream.range(0, types).forEach(i -> {
-                        $("tr", S.SignatureTypeVariable, () -> {
-                            $("td", member.createTypeVariable(i));
-                            $("td", member.createTypeVariableComment(i));
-                        });
-                    });
-
-                    IntStream.range(0, params).forEach(i -> {
-                        $("tr", S.SignatureParameter, () -> {
-                            $("td", member.createParameter(i), text(" "), member.createParameterName(i));
-                            $("td", member.createParameterComment(i));
-                        });
-                    });
-
-                    if (0 < returns) {
-                        $("tr", S.SignatureReturn, () -> {
-                            $("td", member.createReturnType());
-                            $("td", member.createReturnComment());
-                        });
-                    }
-
-                    IntStream.range(0, exceptions).forEach(i -> {
-                        $("tr", S.SignatureException, () -> {
-                            $("td", member.createException(i));
-                            $("td", member.createExceptionComment(i));
-                        });
-                    });
-                });
-            }
-            $(member.document());
-
-            List<SampleInfo> list = model.samples.get(contents.id() + "#" + member.id());
-            if (list != null) {
-                for (SampleInfo sample : list) {
-                    $("pre", clazz("lang-java"), () -> {
-                        $("code", text(sample.code));
-                    });
-                }
-            }
-        });
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -434,4 +341,126 @@ public class APIPage extends Page<ClassInfo> {
             });
         };
     }
+
+    /**
+     * The member section which is declared and serialized lazily, so only one member tree is
+     * materialized at a time.
+     */
+    private class MemberSection extends Component {
+
+        private final MemberInfo member;
+
+        /**
+         * @param member
+         */
+        private MemberSection(MemberInfo member) {
+            this.member = member;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void declare() {
+            if (member instanceof ExecutableInfo executable) {
+                writeMember(executable);
+            } else {
+                writeMember((FieldInfo) member);
+            }
+        }
+
+        /**
+         * Write HTML for each members.
+         * 
+         * @param member
+         */
+        private void writeMember(FieldInfo member) {
+            $("section", id(member.id()), Styles.Section, () -> {
+                $("h2", S.MemberName, () -> {
+                    XML type = member.createType();
+
+                    $(member.createModifier());
+                    $("code", S.Name, text(member.name));
+                    if (type != null) $("i", S.Return, type);
+                });
+
+                $(member.document());
+
+                List<SampleInfo> list = model.samples.get(contents.id() + "#" + member.id());
+                if (list != null) {
+                    for (SampleInfo sample : list) {
+                        $("pre", clazz("lang-java"), () -> {
+                            $("code", text(sample.code));
+                        });
+                    }
+                }
+            });
+        }
+
+        /**
+         * Write HTML for each members.
+         * 
+         * @param member
+         */
+        private void writeMember(ExecutableInfo member) {
+            $("section", id(member.id()), Styles.Section, () -> {
+                $("h2", S.MemberName, () -> {
+                    XML type = member.createReturnType();
+
+                    $(member.createModifier());
+                    $("code", S.Name, text(member.name));
+                    $(member.createParameter());
+                    if (type != null) $("i", S.Return, type);
+                });
+
+                int types = member.numberOfTypeVariables();
+                int params = member.numberOfParameters();
+                int returns = member.returnVoid() ? 0 : 1;
+                int exceptions = member.numberOfExceptions();
+
+                if (0 < types + params + returns + exceptions) {
+                    $("table", S.SignatureTable, () -> {
+                        IntStream.range(0, types).forEach(i -> {
+                            $("tr", S.SignatureTypeVariable, () -> {
+                                $("td", member.createTypeVariable(i));
+                                $("td", member.createTypeVariableComment(i));
+                            });
+                        });
+
+                        IntStream.range(0, params).forEach(i -> {
+                            $("tr", S.SignatureParameter, () -> {
+                                $("td", member.createParameter(i), text(" "), member.createParameterName(i));
+                                $("td", member.createParameterComment(i));
+                            });
+                        });
+
+                        if (0 < returns) {
+                            $("tr", S.SignatureReturn, () -> {
+                                $("td", member.createReturnType());
+                                $("td", member.createReturnComment());
+                            });
+                        }
+
+                        IntStream.range(0, exceptions).forEach(i -> {
+                            $("tr", S.SignatureException, () -> {
+                                $("td", member.createException(i));
+                                $("td", member.createExceptionComment(i));
+                            });
+                        });
+                    });
+                }
+                $(member.document());
+
+                List<SampleInfo> list = model.samples.get(contents.id() + "#" + member.id());
+                if (list != null) {
+                    for (SampleInfo sample : list) {
+                        $("pre", clazz("lang-java"), () -> {
+                            $("code", text(sample.code));
+                        });
+                    }
+                }
+            });
+        }
+    }
+
 }
\ No newline at end of file
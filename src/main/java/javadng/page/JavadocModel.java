@@ -9,6 +9,7 @@
  */
 package javadng.page;
 
+import static java.nio.file.StandardWatchEventKinds.*;
 import static javax.tools.Diagnostic.Kind.*;
 import static javax.tools.Diagnostic.Kind.OTHER;
 import static javax.tools.DocumentationTool.Location.*;
@@ -19,25 +20,44 @@ import java.awt.Desktop;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
 import java.net.BindException;
-import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.Duration;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
@@ -54,26 +74,31 @@ import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
-import com.sun.net.httpserver.Headers;
-import com.sun.net.httpserver.HttpServer;
-
 import icy.manipulator.Icy;
+import javadng.BuildCache;
 import javadng.SiteBuilder;
+import javadng.SiteBuilder.Encoding;
 import javadng.design.Design;
+import javadng.parser.BuildContext;
 import javadng.parser.ClassInfo;
 import javadng.parser.Data;
 import javadng.parser.Data.Doc;
+import javadng.parser.MemberInfo;
 import javadng.parser.MethodInfo;
 import javadng.parser.SampleInfo;
 import javadng.parser.SourceCode;
+import javadng.parser.SymbolIndex;
 import javadng.parser.TemplateStore;
 import javadng.parser.TypeResolver;
-import javadng.parser.Util;
 import javadng.repository.CodeRepository;
 import javadng.web.CodeHighlighter;
+import javadng.web.DevServer;
+import javadng.web.Minify;
+import javadng.web.WebCache;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.doclet.DocletEnvironment;
 import jdk.javadoc.doclet.Reporter;
+import kiss.Disposable;
 import kiss.I;
 import kiss.Variable;
 import kiss.XML;
@@ -91,11 +116,29 @@ public abstract class JavadocModel {
     /** The name pattern of document. */
     private static final Pattern DocName = Pattern.compile("(.+)Doc$");
 
+    /** The version of this generator. All cached pages are generated again after upgrading. */
+    private static final String GENERATOR = generator();
+
+    /** The file which is touched after each build completes. (the trigger of live reload) */
+    private static final String STAMP = ".javadng/build.stamp";
+
+    /** The maximum number of javac runs which the scanned data can refer in watch mode. */
+    private static final int GENERATIONS = 4;
+
     /** The scanned data. */
     public final Data data = new Data();
 
-    /** The javadoc mode. */
-    private boolean processingMainSource = true;
+    /** SourceFile-ScannedItems mapping. (ClassInfo or SampleInfo) */
+    private final Map<Path, List<Object>> origins = new HashMap();
+
+    /** The documents which are replaced or removed by the watch mode. */
+    private final Set<ClassInfo> outdated = new HashSet();
+
+    /** The stylesheet is already generated. */
+    private boolean styled;
+
+    /** The context of the latest javadoc run. */
+    private volatile BuildContext context;
 
     /** The document repository. */
     private final List<ClassInfo> docs = new ArrayList();
@@ -106,9 +149,42 @@ public abstract class JavadocModel {
     /** PackageName-URL pair. */
     private final Map<String, String> externals = new HashMap();
 
+    /** The external document URL and its pre-seeded index file. (nullable) */
+    private final Map<String, Path> externalDocs = new LinkedHashMap();
+
+    /** The external document URLs which are already resolved by the previous build. */
+    private final Set<String> resolvedDocs = new HashSet();
+
     /** The internal pacakage names. */
     private final Set<String> internals = new HashSet();
 
+    /** The incremental build mode. */
+    private boolean incremental;
+
+    /** The number of javac runs which the scanned data refers. (watch mode) */
+    private int generations = 1;
+
+    /** The root template store. */
+    private final TemplateStore templates = new TemplateStore();
+
+    /** The code highlighter. */
+    private final CodeHighlighter highlighter = new CodeHighlighter();
+
+    /** The user-specified page renderer. (null means the renderer which is created for each build) */
+    private Executor renderer;
+
+    /** Render pages on the virtual threads which are created for each build. */
+    private boolean parallel;
+
+    /** The service worker mode. */
+    private boolean offline;
+
+    /** The minimum size of file to precompress. (negative means no compression) */
+    private int compressThreshold = -1;
+
+    /** The precompressed variants. */
+    private Encoding[] encodings;
+
     /**
      * The list of source directories.
      * 
@@ -304,7 +380,8 @@ public abstract class JavadocModel {
     }
 
     /**
-     * Specifies the URL of the resolvable external document.
+     * Specifies the URL of the resolvable external document. The package index (element-list or
+     * package-list) is downloaded at build time through {@link WebCache}.
      * 
      * @param urls A list of document URL．
      * @return Chainable API.
@@ -312,17 +389,189 @@ public abstract class JavadocModel {
     public final Javadoc useExternalDoc(String... urls) {
         if (urls != null) {
             for (String url : urls) {
-                if (url != null && url.startsWith("http") && url.endsWith("/api/")) {
-                    I.http(url + "overview-tree.html", XML.class)
-                            .retry(e -> e.delay(Duration.ofMillis(200)).take(20))
-                            .flatIterable(xml -> xml.find(".horizontal a"))
-                            .waitForTerminate()
-                            .to(xml -> {
-                                externals.put(xml.text(), url);
-                            });
+                if (url != null && url.startsWith("http")) {
+                    externalDocs.putIfAbsent(url.endsWith("/") ? url : url + "/", null);
+                }
+            }
+        }
+        return (Javadoc) this;
+    }
+
+    /**
+     * Specifies the URL of the resolvable external document with its local package index
+     * (element-list or package-list), so the build doesn't need to download it.
+     * 
+     * @param url A document URL．
+     * @param index A local package index file.
+     * @return Chainable API.
+     */
+    public final Javadoc useExternalDoc(String url, Path index) {
+        if (url != null && url.startsWith("http") && index != null) {
+            externalDocs.put(url.endsWith("/") ? url : url + "/", index);
+        }
+        return (Javadoc) this;
+    }
+
+    /**
+     * Use the local directory of highlight.js grammars ("{language}.min.js") instead of
+     * downloading them.
+     * 
+     * @param directory A local directory of grammars.
+     * @return Chainable API.
+     */
+    public final Javadoc useHighlightGrammars(Path directory) {
+        highlighter.useLocalGrammars(directory);
+        return (Javadoc) this;
+    }
+
+    /**
+     * Download highlight.js grammars ("{base}{language}.min.js") from the specified location.
+     * 
+     * @param base A base URL of grammars.
+     * @return Chainable API.
+     */
+    public final Javadoc useHighlightGrammars(String base) {
+        highlighter.useRemoteGrammars(base, WebCache.global());
+        return (Javadoc) this;
+    }
+
+    /**
+     * Resolve the package index of all external documents in parallel. The document which is
+     * already resolved by the previous build (in watch mode) is skipped.
+     */
+    private void resolveExternalDocs() {
+        WebCache cache = WebCache.global();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<String> urls = new ArrayList();
+            List<CompletableFuture<Map<String, String>>> indexes = new ArrayList();
+            externalDocs.forEach((url, index) -> {
+                if (resolvedDocs.contains(url)) return;
+                if (index != null) cache.seed(url + "element-list", index);
+
+                urls.add(url);
+
+                indexes.add(CompletableFuture.supplyAsync(() -> {
+                    Variable<String> text = cache.text(url + "element-list");
+                    if (text.isAbsent()) text = cache.text(url + "package-list");
+
+                    return text.isAbsent() ? Map.<String, String> of() : parseExternalIndex(url, text.v);
+                }, executor));
+            });
+
+            // keep the registration order
+            for (int i = 0; i < indexes.size(); i++) {
+                Map<String, String> index = indexes.get(i).join();
+                if (!index.isEmpty()) {
+                    externals.putAll(index);
+                    resolvedDocs.add(urls.get(i));
                 }
             }
         }
+    }
+
+    /**
+     * Parse the package index of the external document. The module-aware "element-list" and the
+     * legacy "package-list" are supported.
+     * 
+     * @param url A document URL.
+     * @param text A package index.
+     * @return PackageName-URL pair.
+     */
+    static Map<String, String> parseExternalIndex(String url, String text) {
+        Map<String, String> packages = new HashMap();
+        String base = url;
+
+        for (String line : text.split("\\R")) {
+            line = line.strip();
+
+            if (line.startsWith("module:")) {
+                base = url + line.substring(7).strip() + "/";
+            } else if (!line.isEmpty()) {
+                packages.put(line, base);
+            }
+        }
+        return packages;
+    }
+
+    /**
+     * Enable the incremental build. The fingerprints of the generated pages are stored in the
+     * output directory, and the next build regenerates only the pages whose sources (or rendered
+     * dependencies) were changed.
+     * 
+     * @return Chainable API.
+     */
+    public final Javadoc useBuildCache() {
+        incremental = true;
+        return (Javadoc) this;
+    }
+
+    /**
+     * Render and write pages concurrently on virtual threads. The output is identical to the
+     * sequential rendering.
+     * 
+     * @return Chainable API.
+     */
+    public final Javadoc useParallelRendering() {
+        parallel = true;
+        renderer = null;
+        return (Javadoc) this;
+    }
+
+    /**
+     * Render and write pages concurrently on the specified {@link Executor}. The output is
+     * identical to the sequential rendering.
+     * 
+     * @param executor A page renderer. It is not closed by the build.
+     * @return Chainable API.
+     */
+    public final Javadoc useParallelRendering(Executor executor) {
+        parallel = executor != null;
+        renderer = executor;
+        return (Javadoc) this;
+    }
+
+    /**
+     * Generate the service worker which caches the site shell and the visited pages by their
+     * content hashes, so the repeated visits are served from the browser cache even if offline.
+     * 
+     * @return Chainable API.
+     */
+    public final Javadoc useServiceWorker() {
+        offline = true;
+        return (Javadoc) this;
+    }
+
+    /**
+     * Determines whether the service worker is generated or not.
+     * 
+     * @return
+     */
+    final boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Write the precompressed gzip variant ("*.gz") next to each HTML, CSS, JS, JSON and SVG file
+     * larger than 1KB, so the static host can serve it without compressing on the fly.
+     * 
+     * @return Chainable API.
+     */
+    public final Javadoc useCompression() {
+        return useCompression(1024, Encoding.GZIP);
+    }
+
+    /**
+     * Write the precompressed variants next to each HTML, CSS, JS, JSON and SVG file larger than
+     * the specified size, so the static host can serve them without compressing on the fly.
+     * 
+     * @param threshold The minimum size of file to compress. (bytes)
+     * @param encodings The variants to write.
+     * @return Chainable API.
+     */
+    public final Javadoc useCompression(int threshold, Encoding... encodings) {
+        this.compressThreshold = Math.max(0, threshold);
+        this.encodings = encodings;
         return (Javadoc) this;
     }
 
@@ -330,80 +579,359 @@ public abstract class JavadocModel {
      * Generate documents.
      */
     public final Javadoc build() {
-        synchronized (JavadocModel.class) {
-            TemplateStore.register("product", product());
-            TemplateStore.register("project", project());
-            TemplateStore.register("version", version());
-
-            Internal.model = this;
-
-            DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
-
-            // ========================================================
-            // Collect sample source
-            // ========================================================
-            if (!sample().isEmpty()) {
-                processingMainSource = false;
-
-                try (ToListener listener = new ToListener("sample");
-                        StandardJavaFileManager m = tool.getStandardFileManager(listener(), Locale.getDefault(), encoding())) {
-                    m.setLocation(SOURCE_PATH, I.signal(sources()).startWith(sample()).map(Directory::asJavaFile).toList());
-                    m.setLocation(CLASS_PATH, classpath() == null ? null
-                            : classpath().stream().map(psychopath.Location::asJavaFile).collect(Collectors.toList()));
-
-                    List<JavaFileObject> files = I.signal(m.list(SOURCE_PATH, "", Set.of(SOURCE), true))
-                            .take(o -> accept(o.getName()) && (o.getName().endsWith("Test.java") || o.getName().endsWith("Doc.java")))
-                            .toList();
-
-                    if (!files.isEmpty()) {
-                        DocumentationTask task = tool.getTask(listener, m, listener(), Internal.class, List.of("-package"), files);
-
-                        if (task.call()) {
-                            listener().report(new Message(OTHER, "sample", "Succeed in scanning sample sources."));
-                        } else {
-                            listener().report(new Message(ERROR, "sample", "Fail in scanning sample sources."));
-                            return (Javadoc) this;
+        synchronized (this) {
+            resolveExternalDocs();
+
+            templates.register("product", product());
+            templates.register("project", project());
+            templates.register("version", version());
+
+            scan(file -> true);
+        }
+        return (Javadoc) this;
+    }
+
+    /**
+     * Scan the main sources and the sample sources. When any source directory is the root of JPMS
+     * module (it has module-info.java), each module is scanned by its own javadoc run in parallel,
+     * and the scanned types are merged into the single {@link Data}. Otherwise, all sources are
+     * scanned by the single javadoc run.
+     * 
+     * @param filter A source file filter.
+     * @return The result of scanning.
+     */
+    private boolean scan(Predicate<Path> filter) {
+        List<Directory> modules = sources().stream().filter(dir -> dir.file("module-info.java").isPresent()).toList();
+
+        if (modules.isEmpty()) {
+            return scan(I.signal(sources()).startWith(sample()).toList(), path -> (isMain(path) || isSample(path)) && filter.test(path));
+        }
+
+        // The module root is placed at the head of the source path, so javadoc compiles it in
+        // the single module mode. The other roots are also placed on the source path to resolve
+        // the types which are required by the module.
+        List<Callable<Scan>> units = new ArrayList();
+        for (Directory module : modules) {
+            List<Directory> path = new ArrayList();
+            path.add(module);
+            sources().stream().filter(dir -> dir != module).forEach(path::add);
+            units.add(() -> new Scan(path, file -> isUnder(file, module) && filter.test(file)));
+        }
+
+        List<Directory> others = sources().stream().filter(dir -> !modules.contains(dir)).toList();
+        if (!others.isEmpty()) {
+            List<Directory> path = new ArrayList(others);
+            path.addAll(modules);
+            units.add(() -> new Scan(path, file -> others.stream().anyMatch(dir -> isUnder(file, dir)) && filter.test(file)));
+        }
+
+        if (!sample().isEmpty()) {
+            List<Directory> path = I.signal(sources()).startWith(sample()).toList();
+            units.add(() -> new Scan(path, file -> isSample(file) && filter.test(file)));
+        }
+
+        initialize();
+
+        // each javadoc run scans into its own data, the failed run fails the whole build
+        List<Scan> scans = new ArrayList();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("javadng-scan-", 0).factory())) {
+            List<Future<Scan>> runs = new ArrayList();
+            for (Callable<Scan> unit : units) {
+                runs.add(executor.submit(unit));
+            }
+            for (Future<Scan> run : runs) {
+                scans.add(run.get());
+            }
+        } catch (ExecutionException e) {
+            throw I.quiet(e.getCause());
+        } catch (InterruptedException e) {
+            throw I.quiet(e);
+        }
+
+        if (scans.stream().anyMatch(scan -> !scan.success)) {
+            return false;
+        }
+
+        // merge the results on the caller in the registration order, then render them
+        BuildContext bound = null;
+        for (Scan scan : scans) {
+            data.merge(scan.data);
+            if (bound == null) bound = scan.context;
+        }
+
+        if (bound != null) {
+            context = bound;
+            context.run(this::complete);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scan the source files by the single javadoc run.
+     * 
+     * @param path The source path.
+     * @param filter A source file filter.
+     * @return The result of scanning.
+     */
+    private boolean scan(List<Directory> path, Predicate<Path> filter) {
+        return scan(path, filter, null);
+    }
+
+    /**
+     * Scan the source files by the single javadoc run.
+     * 
+     * @param path The source path.
+     * @param filter A source file filter.
+     * @param scan The result holder of the parallel run, null for the single run which renders
+     *            the model by itself.
+     * @return The result of scanning.
+     */
+    private boolean scan(List<Directory> path, Predicate<Path> filter, Scan scan) {
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+
+        Internal.model.set(this);
+        Internal.scan.set(scan);
+
+        try (ToListener listener = new ToListener("build");
+                StandardJavaFileManager m = tool.getStandardFileManager(listener(), Locale.getDefault(), encoding())) {
+            // the directory which is both source and sample is listed only once
+            m.setLocation(SOURCE_PATH, path.stream().map(dir -> dir.asJavaPath().toAbsolutePath().normalize().toFile()).distinct().toList());
+            m.setLocation(CLASS_PATH, classpath() == null ? null
+                    : classpath().stream().map(psychopath.Location::asJavaFile).collect(Collectors.toList()));
+            m.setLocationFromPaths(DOCUMENTATION_OUTPUT, List.of(output() == null ? Path.of("") : output().create().asJavaPath()));
+
+            // the helper classes in the sample directories are resolved from the source path
+            List<JavaFileObject> files = I.signal(m.list(SOURCE_PATH, "", Set.of(SOURCE), true))
+                    .take(file -> filter.test(Path.of(file.toUri()).toAbsolutePath().normalize()))
+                    .toList();
+
+            // the parallel run has nothing to do
+            if (files.isEmpty() && scan != null) {
+                return true;
+            }
+
+            // the package-private sample types are required, the main types are filtered by doclet
+            DocumentationTask task = tool.getTask(listener, m, listener(), Internal.class, List.of("-package"), files);
+
+            if (task.call()) {
+                listener().report(new Message(OTHER, "build", "Succeed in building documents."));
+                return true;
+            } else {
+                listener().report(new Message(ERROR, "build", "Fail in building documents."));
+                return false;
+            }
+        } catch (Throwable e) {
+            throw I.quiet(e);
+        } finally {
+            Internal.model.remove();
+            Internal.scan.remove();
+        }
+    }
+
+    /**
+     * The result of the parallel javadoc run. The scanned types are registered into its own
+     * {@link Data}, and merged into the model by the caller after all runs are returned.
+     */
+    private class Scan {
+
+        /** The scanned data of this run. */
+        private final Data data = new Data();
+
+        /** The context of this run. (null if no file is scanned) */
+        private volatile BuildContext context;
+
+        /** The result of this run. */
+        private final boolean success;
+
+        /**
+         * Scan the source files.
+         * 
+         * @param path The source path.
+         * @param filter A source file filter.
+         */
+        private Scan(List<Directory> path, Predicate<Path> filter) {
+            this.success = scan(path, filter, this);
+        }
+    }
+
+    /**
+     * Generate documents and keep regenerating them whenever the source files (or sample files)
+     * are changed. Only the changed compilation units are scanned again, and only the affected
+     * pages are rendered again by the build cache.
+     * 
+     * @return The handle to stop watching. It closes the watch service and terminates the
+     *         watching thread.
+     */
+    public final Disposable watch() {
+        useBuildCache();
+        build();
+
+        // register all directories before returning, so no change is missed after this call
+        WatchService service;
+        Map<WatchKey, Path> keys = new HashMap();
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            for (Directory directory : I.signal(sources()).startWith(sample()).toList()) {
+                register(service, keys, directory.asJavaPath().toAbsolutePath().normalize());
+            }
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+
+        Thread thread = Thread.ofPlatform().name("javadng-watch").start(() -> {
+            try (service) {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Set<Path> changes = new HashSet();
+                    boolean overflow = false;
+
+                    // debounce the burst of changes
+                    WatchKey key = service.take();
+                    while (key != null) {
+                        Path directory = keys.get(key);
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (event.kind() == OVERFLOW) {
+                                overflow = true;
+                            } else {
+                                Path path = directory.resolve((Path) event.context());
+                                if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                                    register(service, keys, path);
+                                    overflow = true;
+                                } else if (path.getFileName().toString().endsWith(".java")) {
+                                    changes.add(path);
+                                }
+                            }
                         }
+                        if (!key.reset()) keys.remove(key);
+
+                        key = service.poll(200, TimeUnit.MILLISECONDS);
+                    }
+
+                    try {
+                        if (overflow) {
+                            rebuild();
+                        } else if (!changes.isEmpty()) {
+                            update(changes);
+                        }
+                    } catch (Throwable e) {
+                        listener().report(new Message(ERROR, "watch", String.valueOf(e)));
                     }
-                } catch (Throwable e) {
-                    throw I.quiet(e);
-                } finally {
-                    processingMainSource = true;
                 }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // stop watching
+            } catch (IOException e) {
+                throw I.quiet(e);
             }
+        });
 
-            // ========================================================
-            // Scan javadoc from main source
-            // ========================================================
-            try (ToListener listener = new ToListener("build");
-                    StandardJavaFileManager m = tool.getStandardFileManager(listener(), Locale.getDefault(), encoding())) {
-                m.setLocation(SOURCE_PATH, I.signal(sources()).map(Directory::asJavaFile).toList());
-                m.setLocation(CLASS_PATH, classpath() == null ? null
-                        : classpath().stream().map(psychopath.Location::asJavaFile).collect(Collectors.toList()));
-                m.setLocationFromPaths(DOCUMENTATION_OUTPUT, List.of(output() == null ? Path.of("") : output().create().asJavaPath()));
+        return () -> {
+            thread.interrupt();
+            try {
+                service.close();
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        };
+    }
 
-                DocumentationTask task = tool.getTask(listener, m, listener(), Internal.class, List.of("-protected"), m
-                        .list(SOURCE_PATH, "", Set.of(SOURCE), true));
+    /**
+     * Watch the specified directory and its descendants.
+     * 
+     * @param service A watch service.
+     * @param keys WatchKey-Directory mapping.
+     * @param directory A target directory.
+     */
+    private void register(WatchService service, Map<WatchKey, Path> keys, Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                keys.put(path.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), path);
+            }
+        }
+    }
+
+    /**
+     * Discard all scanned data and generate documents again.
+     */
+    private void rebuild() {
+        synchronized (this) {
+            generations = 1;
+            data.clear();
+            outdated.addAll(docs);
+            samples.clear();
+            origins.clear();
+        }
+        build();
+    }
 
-                if (task.call()) {
-                    listener().report(new Message(OTHER, "build", "Succeed in building documents."));
+    /**
+     * Scan the changed source files again and regenerate the affected pages.
+     * 
+     * @param changes A set of changed source files.
+     */
+    private void update(Set<Path> changes) {
+        synchronized (this) {
+            // forget everything scanned from the changed files
+            for (Path path : changes) {
+                for (Object item : origins.getOrDefault(path, List.of())) {
+                    if (item instanceof ClassInfo info) {
+                        data.remove(info);
+                        outdated.add(info);
+                    } else if (item instanceof SampleInfo sample) {
+                        samples.getOrDefault(sample.id(), new ArrayList()).remove(sample);
+                    }
+                }
+                origins.remove(path);
+            }
+
+            Set<Path> existing = changes.stream().filter(Files::exists).collect(Collectors.toSet());
+
+            if (existing.stream().anyMatch(path -> isMain(path) || isSample(path))) {
+                // The unchanged infos keep referring the javac run which has scanned them, so each
+                // partial scan leaves one more javac instance alive. Retire them all periodically.
+                if (++generations <= GENERATIONS) {
+                    scan(existing::contains);
                 } else {
-                    listener().report(new Message(ERROR, "build", "Fail in building documents."));
+                    rebuild();
                 }
-            } catch (Throwable e) {
-                throw I.quiet(e);
+            } else {
+                // some files are only removed
+                context.run(this::complete);
             }
+            listener().report(new Message(OTHER, "watch", "Updated " + changes.size() + " source files."));
         }
-        return (Javadoc) this;
     }
 
-    private boolean accept(String name) {
-        for (Directory directory : sample()) {
-            if (name.startsWith(directory.toString())) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Test whether the specified file is the main source or not.
+     * 
+     * @param file A source file.
+     * @return
+     */
+    private boolean isMain(Path file) {
+        return sources().stream().anyMatch(dir -> isUnder(file, dir));
+    }
+
+    /**
+     * Test whether the specified file is the sample source or not.
+     * 
+     * @param file A source file.
+     * @return
+     */
+    private boolean isSample(Path file) {
+        String name = file.getFileName().toString();
+
+        return (name.endsWith("Test.java") || name.endsWith("Doc.java")) && sample().stream().anyMatch(dir -> isUnder(file, dir));
+    }
+
+    /**
+     * Test whether the specified file is located in the directory.
+     * 
+     * @param file A source file.
+     * @param directory A source directory.
+     * @return
+     */
+    private static boolean isUnder(Path file, Directory directory) {
+        return file.startsWith(directory.asJavaPath().toAbsolutePath().normalize());
     }
 
     /**
@@ -412,7 +940,7 @@ public abstract class JavadocModel {
      * @return
      */
     public final Class<? extends Doclet> buildDocletClass() {
-        Internal.model = this;
+        Internal.model.set(this);
 
         return Internal.class;
     }
@@ -428,35 +956,13 @@ public abstract class JavadocModel {
      */
     public final Javadoc show() {
         try {
-            psychopath.File checker = output().file("index.html");
-            long[] modified = {checker.lastModifiedMilli()};
-            String prefix = "/application/";
-
-            HttpServer server = HttpServer.create(new InetSocketAddress(9321), 0);
-            server.createContext("/live", context -> {
-                long time = checker.lastModifiedMilli();
-                if (modified[0] < time) {
-                    modified[0] = time;
-                    context.sendResponseHeaders(200, 1);
-                    I.copy(new ByteArrayInputStream("0".getBytes()), context.getResponseBody(), true);
-                } else {
-                    context.sendResponseHeaders(204, -1);
-                }
-            });
-            server.createContext(prefix, context -> {
-                psychopath.File file = output().file(context.getRequestURI().getPath().substring(prefix.length()));
-                byte[] body = file.text().getBytes(StandardCharsets.UTF_8);
-
-                Headers headers = context.getResponseHeaders();
-                headers.set("Content-Type", mime(file));
-                context.sendResponseHeaders(200, body.length);
-                I.copy(new ByteArrayInputStream(body), context.getResponseBody(), true);
-            });
-            server.start();
+            // the stamp is touched at the end of each build
+            DevServer server = DevServer.start(output().asJavaPath(), 9321, "/application/");
+            server.live("/live", STAMP);
 
             if (Desktop.isDesktopSupported() && Desktop.getDesktop().isSupported(Desktop.Action.BROWSE)) {
                 try {
-                    Desktop.getDesktop().browse(new URI("http://localhost:9321" + prefix + "index.html"));
+                    Desktop.getDesktop().browse(new URI(server.locate("index.html")));
                 } catch (Exception e) {
                     throw I.quiet(e);
                 }
@@ -469,27 +975,6 @@ public abstract class JavadocModel {
         return (Javadoc) this;
     }
 
-    /**
-     * Detect mime-type.
-     * 
-     * @param file
-     * @return
-     */
-    private String mime(psychopath.File file) {
-        switch (file.extension()) {
-        case "css":
-            return "text/css";
-        case "js":
-            return "application/javascript";
-        case "html":
-            return "text/html";
-        case "svg":
-            return "image/svg+xml";
-        default:
-            return "text/plain";
-        }
-    }
-
     /**
      * 
      */
@@ -607,8 +1092,11 @@ public abstract class JavadocModel {
      */
     public static class Internal implements Doclet {
 
-        /** The setting model. */
-        private static JavadocModel model;
+        /** The setting model of the build on the current thread. */
+        private static final ThreadLocal<JavadocModel> model = new InheritableThreadLocal();
+
+        /** The result holder of the parallel javadoc run on the current thread. (null for the single run) */
+        private static final ThreadLocal<JavadocModel.Scan> scan = new ThreadLocal();
 
         /**
          * {@inheritDoc}
@@ -622,31 +1110,46 @@ public abstract class JavadocModel {
          */
         @Override
         public final boolean run(DocletEnvironment env) {
-            Util.DocUtils = env.getDocTrees();
-            Util.ElementUtils = env.getElementUtils();
-            Util.TypeUtils = env.getTypeUtils();
-            Util.Samples = model.sample();
+            JavadocModel model = Internal.model.get();
+            JavadocModel.Scan scan = Internal.scan.get();
+            BuildContext context = new BuildContext(env.getDocTrees(), env.getElementUtils(), env.getTypeUtils(), model.sample(),
+                    model.highlighter, model.templates);
+
+            // the parallel run only scans into its own data, the caller merges and renders them
+            Data data = scan == null ? model.data : scan.data;
+            if (scan == null) {
+                model.context = context;
+            } else {
+                scan.context = context;
+            }
 
             try {
-                model.initialize();
-
-                for (Element element : env.getSpecifiedElements()) {
-                    switch (element.getKind()) {
-                    case MODULE:
-                        model.process((ModuleElement) element);
-                        break;
-
-                    case PACKAGE:
-                        model.process((PackageElement) element);
-                        break;
-
-                    default:
-                        model.process((TypeElement) element);
-                        break;
+                context.run(() -> {
+                    try {
+                        if (scan == null) model.initialize();
+
+                        for (Element element : env.getSpecifiedElements()) {
+                            switch (element.getKind()) {
+                            case MODULE:
+                                model.process((ModuleElement) element, data);
+                                break;
+
+                            case PACKAGE:
+                                model.process((PackageElement) element);
+                                break;
+
+                            default:
+                                model.process((TypeElement) element, data);
+                                break;
+                            }
+                        }
+                    } finally {
+                        if (scan == null) model.complete();
                     }
-                }
+                });
             } finally {
-                model.complete();
+                // the pooled or inherited thread never retains the model
+                Internal.model.remove();
             }
             return true;
         }
@@ -682,12 +1185,10 @@ public abstract class JavadocModel {
      * @param className
      */
     final Variable<ClassInfo> findByClassName(String className) {
-        for (ClassInfo info : data.types) {
-            if (info.id().equals(className)) {
-                return Variable.of(info);
-            }
-        }
-        return Variable.empty();
+        Variable<ClassInfo> info = data.findByClassName(className);
+
+        // accept the binary name of the nested type
+        return info.isPresent() ? info : data.findByClassName(className.replace('$', '.'));
     }
 
     /**
@@ -709,6 +1210,7 @@ public abstract class JavadocModel {
      * Initialization phase.
      */
     private void initialize() {
+        internals.clear();
         internals.addAll(findSourcePackages());
     }
 
@@ -718,27 +1220,57 @@ public abstract class JavadocModel {
      * of interface.
      * 
      * @param root A class or interface program element root.
+     * @param data The data to register.
      */
-    private void process(TypeElement root) {
+    private void process(TypeElement root, Data data) {
+        // the main types are documented in the protected level
+        Path path = locate(root);
+        boolean asMain = isMain(path) && isProtectedAccessible(root);
+        boolean asSample = isSample(path);
+
+        if (!asMain && !asSample) {
+            return;
+        }
+
         ClassInfo info = new ClassInfo(root, new TypeResolver(externals, internals, root));
 
-        if (processingMainSource) {
-            data.add(info);
-        } else {
-            Matcher matcher = DocName.matcher(info.outer().map(o -> o.name).or(""));
+        // the parallel javadoc runs share the documents and samples
+        synchronized (origins) {
+            List<Object> origin = origins.computeIfAbsent(path, key -> new ArrayList());
 
-            if (matcher.matches() && info.isPublic()) {
-                docs.add(0, info);
-            } else {
-                for (MethodInfo method : info.methods()) {
-                    if (!method.getSeeTags().isEmpty()) {
-                        String code = SourceCode.read(method);
-                        for (XML see : method.getSeeTags()) {
-                            String[] id = info.identify(see.text());
-                            SampleInfo sample = new SampleInfo(id[0], id[1], code);
-                            sample.comment.set(method.document());
-
-                            samples.computeIfAbsent(sample.id(), x -> new ArrayList()).add(sample);
+            if (asMain) {
+                data.add(info);
+                origin.add(info);
+            }
+
+            if (asSample) {
+                Matcher matcher = DocName.matcher(info.outer().map(o -> o.name).or(""));
+
+                if (matcher.matches() && info.isPublic()) {
+                    // keep the order of the replaced document
+                    int index = 0;
+                    while (index < docs.size() && !docs.get(index).id().equals(info.id())) {
+                        index++;
+                    }
+
+                    if (index == docs.size()) {
+                        docs.add(0, info);
+                    } else {
+                        docs.set(index, info);
+                    }
+                    origin.add(info);
+                } else {
+                    for (MethodInfo method : info.methods()) {
+                        if (!method.getSeeTags().isEmpty()) {
+                            String code = SourceCode.read(method);
+                            for (XML see : method.getSeeTags()) {
+                                String[] id = info.identify(see.text());
+                                SampleInfo sample = new SampleInfo(id[0], id[1], code);
+                                sample.comment.set(method.document());
+
+                                samples.computeIfAbsent(sample.id(), x -> new ArrayList()).add(sample);
+                                origin.add(sample);
+                            }
                         }
                     }
                 }
@@ -746,6 +1278,32 @@ public abstract class JavadocModel {
         }
     }
 
+    /**
+     * Test whether the specified type and all its enclosing types are public or protected.
+     * 
+     * @param root A type element.
+     * @return
+     */
+    private static boolean isProtectedAccessible(TypeElement root) {
+        for (Element e = root; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.PROTECTED)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Locate the source file which declares the specified type.
+     * 
+     * @param root A type element.
+     * @return
+     */
+    private Path locate(TypeElement root) {
+        return Path.of(BuildContext.current().docs.getPath(root).getCompilationUnit().getSourceFile().toUri()).toAbsolutePath().normalize();
+    }
+
     /**
      * Process a package program element. Provides access to information about the package and its
      * members.
@@ -760,79 +1318,280 @@ public abstract class JavadocModel {
      * directives, and its members.
      * 
      * @param root A module program element root.
+     * @param data The data to register.
      */
-    private void process(ModuleElement root) {
+    private void process(ModuleElement root, Data data) {
+        if (!root.isUnnamed()) {
+            data.addModule(root.getQualifiedName().toString());
+        }
     }
 
     /**
      * Completion phase.
      */
     private void complete() {
-        if (processingMainSource) {
-            // sort data
-            data.modules.sort(Comparator.naturalOrder());
-            data.packages.sort(Comparator.naturalOrder());
-            data.types.sort(Comparator.naturalOrder());
+        // drop the documents which are removed in watch mode
+        docs.removeAll(outdated);
+        outdated.clear();
+        data.docs.clear();
+
+        // sort data
+        data.modules.sort(Comparator.naturalOrder());
+        data.packages.sort(Comparator.naturalOrder());
+        data.types.sort(Comparator.naturalOrder());
+
+        // after care
+        data.connectSubType();
+
+        // build doc tree
+        for (ClassInfo info : docs) {
+            Doc doc = new Doc();
+            doc.title = info.title();
+            doc.path = "doc/" + info.id() + ".html";
+            data.docs.add(doc);
+
+            for (DocumentProvider child : info.children(Modifier.PUBLIC)) {
+                Doc childDoc = new Doc();
+                childDoc.title = child.title();
+                childDoc.path = "doc/" + info.id() + ".html#" + child.id();
+                doc.subs.add(childDoc);
+
+                for (DocumentProvider foot : child.children(Modifier.PUBLIC)) {
+                    Doc footDoc = new Doc();
+                    footDoc.title = foot.title();
+                    footDoc.path = "doc/" + info.id() + ".html#" + foot.id();
+                    childDoc.subs.add(footDoc);
+                }
+            }
+        }
 
-            // after care
-            data.connectSubType();
+        if (output() != null) {
+            SiteBuilder site = SiteBuilder.root(output()).guard("index.html", "main.css", "mocha.html", "mimic.test.js");
+            if (incremental) site.cache(".javadng/build.cache");
 
-            // build doc tree
+            // build CSS (styles never change in the same process, and stylist is shared by all builds)
+            Path css = output().file("main.css").asJavaPath();
+            if (!styled || Files.notExists(css)) {
+                synchronized (Stylist.class) {
+                    I.load(SiteBuilder.class);
+                    Stylist.pretty().scheme(Design.class).styles(I.findAs(StyleDeclarable.class)).formatTo(css);
+                }
+                styled = true;
+            }
+
+            // build assets under the content-hashed names, the references between them are rewritten
+            try {
+                site.buildAsset("main.css", Files.readString(css));
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+            String svg = site.buildAsset("main.svg", resource("main.svg"));
+            String mimic = site.buildAsset("mimic.js", Minify.minify(resource("mimic.js")));
+            String highlight = site
+                    .buildAsset("highlight.js", Minify.minify(resource("highlight.js") + "\n" + String.join("\n", highlighter.build())));
+            String main = Minify.minify(resource("main.js"));
+            main = relink(main, "mimic.js", mimic);
+            main = relink(main, "highlight.js", highlight);
+            main = relink(main, "main.svg", svg);
+            site.buildAsset("main.js", main);
+            site.buildAssetManifest("assets.json");
+
+            // the guarded test page (mocha.html) imports mimic.js by its plain name
+            site.build("mimic.js", SiteBuilder.class.getResourceAsStream("mimic.js"));
+
+            // build HTML (pages refer the assets by their hashed names)
+            String config = BuildCache.hash(configuration(), site.asset("main.css"), site.asset("main.js"), site.asset("mimic.js"), svg);
+            List<Runnable> pages = new ArrayList();
+            for (ClassInfo info : data.types) {
+                pages.add(() -> site
+                        .buildHTML("api/" + info.id() + ".html", fingerprint(config, info), () -> new APIPage(1, this, info)));
+            }
             for (ClassInfo info : docs) {
-                Doc doc = new Doc();
-                doc.title = info.title();
-                doc.path = "doc/" + info.id() + ".html";
-                data.docs.add(doc);
-
-                for (DocumentProvider child : info.children(Modifier.PUBLIC)) {
-                    Doc childDoc = new Doc();
-                    childDoc.title = child.title();
-                    childDoc.path = "doc/" + info.id() + ".html#" + child.id();
-                    doc.subs.add(childDoc);
-
-                    for (DocumentProvider foot : child.children(Modifier.PUBLIC)) {
-                        Doc footDoc = new Doc();
-                        footDoc.title = foot.title();
-                        footDoc.path = "doc/" + info.id() + ".html#" + foot.id();
-                        childDoc.subs.add(footDoc);
-                    }
+                pages.add(() -> site
+                        .buildHTML("doc/" + info.id() + ".html", fingerprint(config, info), () -> new DocumentPage(1, this, info)));
+            }
+            render(pages);
+
+            // build navigation shards for each module
+            for (String module : data.modules) {
+                site.buildJSON("module/" + module + ".json", data.module(module));
+            }
+
+            // build navigation shards for each package
+            for (String pack : data.packages) {
+                site.buildJSON("package/" + pack + ".json", data.pack(pack));
+            }
+
+            // build symbol search index
+            SymbolIndex index = SymbolIndex.of(data);
+            List<SymbolIndex.Shard> shards = index.shards();
+            for (int i = 0; i < shards.size(); i++) {
+                site.buildJSON("search/" + i + ".json", shards.get(i));
+            }
+            site.buildJSON("search/index.json", index.manifest());
+
+            // build change log
+            CodeRepository repository = repository();
+            if (repository != null) {
+                Variable<String> changelog = repository.getChangeLogText();
+                if (changelog.isPresent()) {
+                    site.buildHTML("doc/changelog.html", new ActivityPage(1, this, repository.getChangeLog(changelog.v)));
                 }
             }
 
-            if (output() != null) {
-                SiteBuilder site = SiteBuilder.root(output()).guard("index.html", "main.css", "mocha.html", "mimic.test.js");
+            // build the top page
+            site.buildHTML("index.html", new APIPage(0, this, null));
 
-                // build CSS
-                I.load(SiteBuilder.class);
-                Stylist.pretty()
-                        .scheme(Design.class)
-                        .styles(I.findAs(StyleDeclarable.class))
-                        .formatTo(output().file("main.css").asJavaPath());
+            // build service worker from all pages
+            if (offline) {
+                // root.js has no hashed name and changes with the data, so it is cached on demand
+                String[] shell = {"index.html", site.asset("main.css"), site.asset("main.js"), mimic, highlight, svg};
+                site.buildServiceWorker("sw.js", new ByteArrayInputStream(Minify.minify(resource("sw.js")).getBytes(StandardCharsets.UTF_8)), shell);
+            }
 
-                // build JS
-                site.build("main.js", SiteBuilder.class.getResourceAsStream("main.js"));
-                site.build("mimic.js", SiteBuilder.class.getResourceAsStream("mimic.js"));
-                site.build("highlight.js", SiteBuilder.class.getResourceAsStream("highlight.js"), CodeHighlighter.build());
+            if (compressThreshold != -1) site.compress(compressThreshold, encodings);
+            site.complete();
 
-                // build SVG
-                site.build("main.svg", SiteBuilder.class.getResourceAsStream("main.svg"));
+            // touch the stamp after all files (including the variants and the cache) are written
+            try {
+                Path stamp = output().file(STAMP).asJavaPath();
+                Files.createDirectories(stamp.getParent());
+                Files.writeString(stamp, String.valueOf(System.currentTimeMillis()));
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        }
+    }
 
-                // build HTML
-                for (ClassInfo info : data.types) {
-                    site.buildHTML("api/" + info.id() + ".html", new APIPage(1, this, info));
-                }
-                for (ClassInfo info : docs) {
-                    site.buildHTML("doc/" + info.id() + ".html", new DocumentPage(1, this, info));
-                }
+    /**
+     * Render all pages sequentially or concurrently.
+     * 
+     * @param pages A list of page renderers.
+     */
+    private void render(List<Runnable> pages) {
+        if (!parallel) {
+            pages.forEach(Runnable::run);
+        } else if (renderer == null) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                render(pages, executor);
+            }
+        } else {
+            render(pages, renderer);
+        }
+    }
 
-                // build change log
-                I.http(repository().locateChangeLog(), String.class).waitForTerminate().skipError().to(md -> {
-                    site.buildHTML("doc/changelog.html", new ActivityPage(1, this, repository().getChangeLog(md)));
-                });
+    /**
+     * Render pages concurrently.
+     * 
+     * @param pages A list of page renderers.
+     * @param executor A page renderer.
+     */
+    private void render(List<Runnable> pages, Executor executor) {
+        // create the shared directories in advance
+        output().directory("api").create();
+        output().directory("doc").create();
+
+        try {
+            CompletableFuture.allOf(pages.stream().map(page -> CompletableFuture.runAsync(page, executor)).toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            throw I.quiet(e.getCause());
+        }
+    }
+
+    /**
+     * Read the bundled resource.
+     * 
+     * @param name A resource name.
+     * @return
+     */
+    private static String resource(String name) {
+        try (InputStream input = SiteBuilder.class.getResourceAsStream(name)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Rewrite all quoted references (e.g. "./mimic.js" or 'main.svg#icon') to the asset by its
+     * hashed name. The build fails if no reference is found, because the renamed asset would be
+     * missing at runtime.
+     * 
+     * @param code A script.
+     * @param name The original name of asset.
+     * @param hashed The hashed name of asset.
+     * @return The rewritten script.
+     */
+    static String relink(String code, String name, String hashed) {
+        Matcher matcher = Pattern.compile("([\"'`])(\\./)?" + Pattern.quote(name)).matcher(code);
+        if (!matcher.find()) {
+            throw new Error("The reference to the asset [" + name + "] is not found.");
+        }
+        return matcher.replaceAll(m -> Matcher.quoteReplacement(m.group(1) + (m.group(2) == null ? "" : m.group(2)) + hashed));
+    }
 
-                // create at last for live reload
-                site.buildHTML("index.html", new APIPage(0, this, null));
+    /**
+     * Identify the version of this generator. The digest of the archive is used when the version
+     * is not declared in its manifest.
+     * 
+     * @return
+     */
+    private static String generator() {
+        String version = JavadocModel.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+
+        try {
+            Path location = Path.of(JavadocModel.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return Files.isRegularFile(location) ? BuildCache.digest(location) : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Compute the fingerprint of the build configuration which affects all pages.
+     * 
+     * @return
+     */
+    private String configuration() {
+        ClassInfo root = rootDoc();
+        CodeRepository repository = repository();
+
+        // the design is hashed by the stylesheet name, and the fallback date of the repository
+        // without release is excluded to keep the cached pages across days
+        return BuildCache.hash(GENERATOR, product(), project(), version(), description(), root == null ? "" : root.id(), new TreeMap(externals),
+                new TreeSet(internals), new TreeMap(templates), repository == null ? ""
+                        : repository.locate() + repository.getLatestReleaseDate().or(""), offline);
+    }
+
+    /**
+     * Compute the fingerprint of the page for the specified type.
+     * 
+     * @param config The fingerprint of the build configuration.
+     * @param info A target type.
+     * @return
+     */
+    private String fingerprint(String config, ClassInfo info) {
+        List<Object> values = new ArrayList();
+        values.add(config);
+        values.add(info.fingerprint());
+
+        List<MemberInfo> members = new ArrayList();
+        members.addAll(info.fields());
+        members.addAll(info.constructors());
+        members.addAll(info.methods());
+
+        for (MemberInfo member : members) {
+            List<SampleInfo> list = samples.get(info.id() + "#" + member.id());
+            if (list != null) {
+                for (SampleInfo sample : list) {
+                    values.add(sample.code);
+                }
             }
         }
+        return BuildCache.hash(values.toArray());
     }
 }
\ No newline at end of file
@@ -58,9 +58,10 @@ public abstract class Page<T> extends HTML {
                 }
                 $("title", text(model.product() + " API"));
                 $("base", href(base));
-                module("mimic.js");
+                if (model.isOffline()) $("meta", name("service-worker"), content("sw.js"));
+                module(asset("mimic.js"));
                 stylesheet(Stylist.NormalizeCSS);
-                stylesheet("main.css");
+                stylesheet(asset("main.css"));
             });
             $("body", css.body, () -> {
                 // =============================
@@ -114,8 +115,8 @@ public abstract class Page<T> extends HTML {
                 });
             });
 
-            script("root.js", model.data);
-            module("main.js");
+            script("root.js", model.data::navigation);
+            module(asset("main.js"));
         });
 
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.sun.source.util.DocTrees;
+
+import javadng.web.CodeHighlighter;
+import psychopath.Directory;
+
+/**
+ * The state of a single build. The context is bound to the thread which runs the doclet, and every
+ * scanned info and resolver captures it at construction. So the independent builds can run on the
+ * different threads of the same JVM.
+ */
+public final class BuildContext {
+
+    /** The context which is bound to the current thread. */
+    private static final ThreadLocal<BuildContext> bound = new ThreadLocal();
+
+    /** The document utility of the current javadoc run. */
+    public final DocTrees docs;
+
+    /** The element utility of the current javadoc run. */
+    public final Elements elements;
+
+    /** The type utility of the current javadoc run. */
+    public final Types types;
+
+    /** The list of sample directories. */
+    public final List<Directory> samples;
+
+    /** The code highlighter. */
+    public final CodeHighlighter highlighter;
+
+    /** The root template store. */
+    public final TemplateStore templates;
+
+    /** The type-info mapping. */
+    final Map<Element, ClassInfo> infos = new HashMap();
+
+    /**
+     * @param docs The document utility.
+     * @param elements The element utility.
+     * @param types The type utility.
+     * @param samples The list of sample directories.
+     * @param highlighter The code highlighter.
+     * @param templates The root template store.
+     */
+    public BuildContext(DocTrees docs, Elements elements, Types types, List<Directory> samples, CodeHighlighter highlighter,
+            TemplateStore templates) {
+        this.docs = docs;
+        this.elements = elements;
+        this.types = types;
+        this.samples = samples;
+        this.highlighter = highlighter;
+        this.templates = templates;
+    }
+
+    /**
+     * Execute the specified task with this context bound to the current thread.
+     * 
+     * @param task A task to execute.
+     */
+    public void run(Runnable task) {
+        BuildContext previous = bound.get();
+        bound.set(this);
+
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                bound.remove();
+            } else {
+                bound.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the context which is bound to the current thread.
+     * 
+     * @return
+     */
+    public static BuildContext current() {
+        BuildContext context = bound.get();
+        if (context == null) {
+            throw new Error("No build context is bound to the current thread.");
+        }
+        return context;
+    }
+}
@@ -22,6 +22,7 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.ModuleElement;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
@@ -32,6 +33,7 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.SimpleElementVisitor9;
 
+import javadng.BuildCache;
 import javadng.page.DocumentProvider;
 import kiss.I;
 import kiss.Variable;
@@ -39,9 +41,6 @@ import kiss.XML;
 
 public class ClassInfo extends ParameterizableInfo implements DocumentProvider, Comparable<ClassInfo> {
 
-    /** The type-info mapping. */
-    private static final Map<Element, ClassInfo> infos = new HashMap();
-
     /** The package name. */
     public String packageName;
 
@@ -51,12 +50,18 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     /** The kind of type (interface, abstract class, class etc) */
     public String type;
 
+    /** The module name. (empty for the unnamed module) */
+    public String moduleName;
+
     /** The super type */
     private final List<XML> supers = new ArrayList();
 
     /** The list of implement types. */
     private final List<XML> interfaces = new ArrayList();
 
+    /** The fully qualified names of all super types and interfaces. */
+    final List<String> uppers = new ArrayList();
+
     /** Info repository. */
     private final List<FieldInfo> fields = new ArrayList();
 
@@ -66,6 +71,12 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     /** Info repository. */
     private final List<MethodInfo> methods = new ArrayList();
 
+    /** The member index by signature. */
+    private final Map<String, MemberInfo> members = new HashMap();
+
+    /** The first declared method by name. */
+    private final Map<String, MethodInfo> methodNames = new HashMap();
+
     /** Info repository. */
     private ClassInfo outer;
 
@@ -78,6 +89,12 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     /** FQCN resolver. */
     private final TypeResolver resolver;
 
+    /** The fingerprint of the source file. */
+    private final String sourceHash;
+
+    /** The fingerprint of the scanned contents. (lazy) */
+    private String fingerprint;
+
     /**
      * @param root
      * @param resolver
@@ -85,23 +102,28 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     public ClassInfo(TypeElement root, TypeResolver resolver) {
         super(root, resolver, null);
         this.resolver = resolver;
-        this.packageName = Util.ElementUtils.getPackageOf(root).toString();
+        this.packageName = context.elements.getPackageOf(root).toString();
+        ModuleElement module = context.elements.getModuleOf(root);
+        this.moduleName = module == null || module.isUnnamed() ? "" : module.getQualifiedName().toString();
         this.name = root.asType().toString().replaceAll("<.+>", "").substring(packageName.length() + 1);
         this.type = detectType(root);
 
-        ClassInfo parent = infos.get(root.getEnclosingElement());
+        ClassInfo parent = context.infos.get(root.getEnclosingElement());
         if (parent != null) {
             parent.inners.add(0, this);
             outer = parent;
         }
-        infos.put(root, this);
+        context.infos.put(root, this);
+        this.sourceHash = parent != null ? parent.sourceHash : Util.getSourceHash(root);
 
         Set<TypeMirror>[] types = Util.getAllTypes(root);
         for (TypeMirror type : types[0]) {
             this.supers.add(parseTypeAsXML(type));
+            this.uppers.add(((TypeElement) context.types.asElement(type)).getQualifiedName().toString());
         }
         for (TypeMirror type : types[1]) {
             this.interfaces.add(parseTypeAsXML(type));
+            this.uppers.add(((TypeElement) context.types.asElement(type)).getQualifiedName().toString());
         }
 
         Scanner scanner = new Scanner();
@@ -113,7 +135,7 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     private static String detectType(TypeElement root) {
         switch (root.getKind()) {
         case INTERFACE:
-            if (Util.ElementUtils.isFunctionalInterface(root)) {
+            if (BuildContext.current().elements.isFunctionalInterface(root)) {
                 return "Functional";
             } else {
                 return "Interface";
@@ -304,17 +326,44 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
     }
 
     /**
-     * @param methodName
-     * @param paramTypes
+     * Find the member by its identifier (e.g. "name" for field, "name(int,java.lang.String)" for
+     * method and constructor).
+     * 
+     * @param id A member identifier.
+     * @return
+     */
+    public Variable<MemberInfo> findByMemberId(String id) {
+        return Variable.of(members.get(id));
+    }
+
+    /**
+     * Find the method by its signature. If no parameter type is specified, the first declared
+     * method with the given name is returned when there is no parameterless overload.
+     * 
+     * @param methodName A method name.
+     * @param paramTypes A list of parameter types.
      * @return
      */
     public Variable<MethodInfo> findByMethodSignature(String methodName, Class<?>... paramTypes) {
-        for (MethodInfo info : methods) {
-            if (info.name.equals(methodName)) {
-                return Variable.of(info);
-            }
+        StringJoiner joiner = new StringJoiner(",", methodName + "(", ")");
+        for (Class<?> type : paramTypes) {
+            joiner.add(type.getCanonicalName());
+        }
+        String id = joiner.toString();
+
+        MemberInfo member = members.get(id);
+        if (member == null && paramTypes.length != 0 && paramTypes[paramTypes.length - 1].isArray()) {
+            // variable arity method
+            member = members.get(id.substring(0, id.length() - 3) + "...)");
+        }
+
+        if (member instanceof MethodInfo method) {
+            return Variable.of(method);
+        } else if (paramTypes.length == 0) {
+            return Variable.of(methodNames.get(methodName));
+        } else {
+            return Variable.empty();
         }
-        return Variable.empty();
     }
 
     /**
@@ -348,11 +397,53 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
         return join.toString();
     }
 
+    /**
+     * Compute the fingerprint of all scanned contents which affect the rendered page of this type.
+     * It covers the source file, the resolved documents (including the embedded sample codes) and
+     * the related types.
+     * 
+     * @return
+     */
+    public synchronized String fingerprint() {
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+
+        List<Object> values = new ArrayList();
+        values.add(sourceHash);
+        values.add(comment.v);
+        supers.forEach(values::add);
+        interfaces.forEach(values::add);
+        subs.forEach(values::add);
+        for (MemberInfo member : fields) {
+            values.add(member.comment.v);
+        }
+        for (MemberInfo member : constructors) {
+            values.add(member.comment.v);
+        }
+        for (MemberInfo member : methods) {
+            values.add(member.comment.v);
+        }
+        for (ClassInfo inner : inners) {
+            values.add(inner.fingerprint());
+        }
+        return fingerprint = BuildCache.hash(values.toArray());
+    }
+
     /**
      * @param sub
      */
-    public void addSub(ClassInfo sub) {
+    public synchronized void addSub(ClassInfo sub) {
         this.subs.add(parseTypeAsXML(sub.e.asType()));
+        this.fingerprint = null;
+    }
+
+    /**
+     * Forget all linked sub types.
+     */
+    synchronized void clearSubs() {
+        this.subs.clear();
+        this.fingerprint = null;
     }
 
     /**
@@ -366,7 +457,10 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
         @Override
         public ClassInfo visitVariable(VariableElement e, ClassInfo info) {
             FieldInfo field = new FieldInfo(e, info.resolver, info);
-            if (isVisible(e, info)) fields.add(field);
+            if (isVisible(e, info)) {
+                fields.add(field);
+                members.put(field.id(), field);
+            }
 
             return info;
         }
@@ -387,10 +481,17 @@ public class ClassInfo extends ParameterizableInfo implements DocumentProvider,
         public ClassInfo visitExecutable(ExecutableElement e, ClassInfo info) {
             if (e.getKind() == ElementKind.CONSTRUCTOR) {
                 ExecutableInfo constructor = new ExecutableInfo(e, info.resolver, info);
-                if (isVisible(e, info)) constructors.add(constructor);
+                if (isVisible(e, info)) {
+                    constructors.add(constructor);
+                    members.put(constructor.id(), constructor);
+                }
             } else {
                 MethodInfo method = new MethodInfo(e, info.resolver, info);
-                if (isVisible(e, info)) methods.add(method);
+                if (isVisible(e, info)) {
+                    methods.add(method);
+                    members.put(method.id(), method);
+                    methodNames.putIfAbsent(method.name, method);
+                }
             }
             return info;
         }
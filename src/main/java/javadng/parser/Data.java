@@ -10,18 +10,22 @@
 package javadng.parser;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
-import javax.lang.model.element.Element;
-import javax.lang.model.type.TypeMirror;
+import kiss.Variable;
 
 /**
  * Scanned data repository.
  */
 public final class Data {
 
-    /** Type repository. */
+    /** Module repository. */
     public List<String> modules = new ArrayList();
 
     /** Type repository. */
@@ -33,36 +37,249 @@ public final class Data {
     /** Doc repository. */
     public List<Doc> docs = new ArrayList();
 
+    /** The type index by its id. */
+    private final Map<String, ClassInfo> typeIndex = new HashMap();
+
+    /** The type index by its package name. */
+    private final Map<String, List<ClassInfo>> packageIndex = new HashMap();
+
+    /** The package index by its module name. */
+    private final Map<String, Set<String>> moduleIndex = new HashMap();
+
     /**
-     * Avoid duplication.
+     * Register the scanned type and its package.
      */
     public void add(ClassInfo info) {
         types.add(info);
+        typeIndex.put(info.id(), info);
+
+        packageIndex.computeIfAbsent(info.packageName, key -> {
+            packages.add(key);
+            return new ArrayList();
+        }).add(info);
 
-        if (packages.indexOf(info.packageName) == -1) {
-            packages.add(info.packageName);
+        if (!info.moduleName.isEmpty()) {
+            addModule(info.moduleName).add(info.packageName);
         }
     }
 
     /**
+     * Register the scanned module.
+     * 
+     * @param name A module name.
+     * @return The package names in the module.
+     */
+    public Set<String> addModule(String name) {
+        return moduleIndex.computeIfAbsent(name, key -> {
+            modules.add(key);
+            return new TreeSet();
+        });
+    }
+
+    /**
+     * Register all modules and types which are scanned into the other repository.
      * 
+     * @param other The other repository.
+     */
+    public void merge(Data other) {
+        for (String module : other.modules) {
+            addModule(module).addAll(other.findByModule(module));
+        }
+        for (ClassInfo type : other.types) {
+            add(type);
+        }
+    }
+
+    /**
+     * Unregister the scanned type. The package is also unregistered when it has no type.
+     */
+    public void remove(ClassInfo info) {
+        if (typeIndex.remove(info.id(), info)) {
+            types.remove(info);
+
+            List<ClassInfo> list = packageIndex.get(info.packageName);
+            list.remove(info);
+            if (list.isEmpty()) {
+                packageIndex.remove(info.packageName);
+                packages.remove(info.packageName);
+                moduleIndex.values().forEach(names -> names.remove(info.packageName));
+            }
+        }
+    }
+
+    /**
+     * Unregister all scanned modules, packages and types.
+     */
+    public void clear() {
+        modules.clear();
+        packages.clear();
+        types.clear();
+        docs.clear();
+        typeIndex.clear();
+        packageIndex.clear();
+        moduleIndex.clear();
+    }
+
+    /**
+     * Build the navigation data of the specified module.
+     * 
+     * @param name A module name.
+     * @return
+     */
+    public Module module(String name) {
+        Module module = new Module();
+        module.name = name;
+        for (String packageName : findByModule(name)) {
+            module.packages.add(packageName);
+            module.types.addAll(findByPackage(packageName));
+        }
+        module.types.sort(Comparator.naturalOrder());
+        return module;
+    }
+
+    /**
+     * Build the navigation data of the specified package.
+     * 
+     * @param name A package name.
+     * @return
+     */
+    public Package pack(String name) {
+        Package pack = new Package();
+        pack.name = name;
+        pack.types.addAll(findByPackage(name));
+        pack.types.sort(Comparator.naturalOrder());
+        return pack;
+    }
+
+    /**
+     * Build the top-level navigation data. It has no type, the types of each package are loaded
+     * from its own shard (see {@link #pack(String)}) when they are required.
+     * 
+     * @return
+     */
+    public Navigation navigation() {
+        Navigation navigation = new Navigation();
+        navigation.modules.addAll(modules);
+        navigation.docs.addAll(docs);
+
+        for (String name : packages) {
+            List<ClassInfo> list = findByPackage(name);
+
+            PackageSummary summary = new PackageSummary();
+            summary.name = name;
+            summary.moduleName = list.isEmpty() ? "" : list.get(0).moduleName;
+            summary.size = list.size();
+            for (ClassInfo type : list) {
+                if (!summary.kinds.contains(type.type)) summary.kinds.add(type.type);
+            }
+            navigation.packages.add(summary);
+        }
+        return navigation;
+    }
+
+    /**
+     * Find the type by its id (fully qualified class name).
+     * 
+     * @param id A type id.
+     * @return
+     */
+    public Variable<ClassInfo> findByClassName(String id) {
+        return Variable.of(typeIndex.get(id));
+    }
+
+    /**
+     * List up all types in the specified package.
+     * 
+     * @param packageName A package name.
+     * @return
+     */
+    public List<ClassInfo> findByPackage(String packageName) {
+        return Collections.unmodifiableList(packageIndex.getOrDefault(packageName, List.of()));
+    }
+
+    /**
+     * List up all packages in the specified module.
+     * 
+     * @param moduleName A module name.
+     * @return
+     */
+    public Set<String> findByModule(String moduleName) {
+        return Collections.unmodifiableSet(moduleIndex.getOrDefault(moduleName, Set.of()));
+    }
+
+    /**
+     * Link all scanned types to their super types. The name-keyed index is built only once, so the
+     * linking runs in linear time for the number of type-supertype pairs. Since the super types are
+     * resolved at scanning, the types scanned by the different javadoc runs can be linked each
+     * other.
      */
     public void connectSubType() {
+        Map<String, ClassInfo> index = new HashMap(types.size());
+        for (ClassInfo type : types) {
+            type.clearSubs();
+            index.put(type.id(), type);
+        }
+
         for (ClassInfo type : types) {
-            for (Set<TypeMirror> uppers : Util.getAllTypes(type.e)) {
-                for (TypeMirror upper : uppers) {
-                    Element e = Util.TypeUtils.asElement(upper);
-                    for (ClassInfo info : types) {
-                        if (info.e.equals(e)) {
-                            info.addSub(type);
-                            break;
-                        }
-                    }
+            for (String upper : type.uppers) {
+                ClassInfo info = index.get(upper);
+                if (info != null) {
+                    info.addSub(type);
                 }
             }
         }
     }
 
+    /**
+     * Navigation data of the module.
+     */
+    public static class Module {
+
+        public String name;
+
+        public List<String> packages = new ArrayList();
+
+        public List<ClassInfo> types = new ArrayList();
+    }
+
+    /**
+     * Navigation data of the package.
+     */
+    public static class Package {
+
+        public String name;
+
+        public List<ClassInfo> types = new ArrayList();
+    }
+
+    /**
+     * Summary of the package in the top-level navigation.
+     */
+    public static class PackageSummary {
+
+        public String name;
+
+        public String moduleName;
+
+        /** The number of types. */
+        public int size;
+
+        /** The kinds of types (e.g. Class, Interface) in this package. */
+        public List<String> kinds = new ArrayList();
+    }
+
+    /**
+     * The top-level navigation data.
+     */
+    public static class Navigation {
+
+        public List<String> modules = new ArrayList();
+
+        public List<PackageSummary> packages = new ArrayList();
+
+        public List<Doc> docs = new ArrayList();
+    }
+
     /**
      * Scanned doc data.
      */
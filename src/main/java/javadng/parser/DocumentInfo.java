@@ -68,7 +68,6 @@ import com.sun.source.doctree.VersionTree;
 import com.sun.source.util.SimpleDocTreeVisitor;
 
 import javadng.design.Styles;
-import javadng.web.CodeHighlighter;
 import kiss.I;
 import kiss.Variable;
 import kiss.XML;
@@ -79,6 +78,9 @@ public class DocumentInfo {
     /** The associated element. */
     protected final Element e;
 
+    /** The build context. */
+    protected final BuildContext context;
+
     protected final Variable<XML> comment = Variable.empty();
 
     /** Tag info. */
@@ -113,17 +115,20 @@ public class DocumentInfo {
 
     protected int[] documentLines = {-1, -1};
 
-    private final Parser markParser = Parser.builder().extensions(List.of(TablesExtension.create())).build();
+    /** The thread-safe markdown parser, shared by all documents. */
+    private static final Parser markParser = Parser.builder().extensions(List.of(TablesExtension.create())).build();
 
-    private final HtmlRenderer htmlRenderer = HtmlRenderer.builder().extensions(List.of(TablesExtension.create())).build();
+    /** The thread-safe markdown renderer, shared by all documents. */
+    private static final HtmlRenderer htmlRenderer = HtmlRenderer.builder().extensions(List.of(TablesExtension.create())).build();
 
     protected DocumentInfo(Element e, TypeResolver resolver, DocumentInfo parent) {
         this.e = e;
+        this.context = parent == null ? BuildContext.current() : parent.context;
         this.resolver = resolver;
-        this.templateTags = new TemplateStore(parent == null ? null : parent.templateTags);
+        this.templateTags = new TemplateStore(parent == null ? context.templates : parent.templateTags);
 
         try {
-            DocCommentTree docs = Util.DocUtils.getDocCommentTree(e);
+            DocCommentTree docs = context.docs.getDocCommentTree(e);
             if (docs != null) {
                 comment.set(xml(docs.getFullBody()));
                 comment.to(x -> x.addClass(Styles.JavadocComment.className()));
@@ -357,7 +362,7 @@ public class DocumentInfo {
             // type being processed, the FQCN cannot be resolved properly and should be
             // resolved separately.
             if (fqcn.equals(linkLike) && linkLike.indexOf(".") == -1) {
-                fqcn = Util.ElementUtils.getPackageOf(Util.getTopLevelTypeElement(e)).getQualifiedName() + "." + linkLike;
+                fqcn = context.elements.getPackageOf(Util.getTopLevelTypeElement(e)).getQualifiedName() + "." + linkLike;
             }
             return new String[] {fqcn, null};
         } else if (index == 0) {
@@ -371,7 +376,7 @@ public class DocumentInfo {
             // type being processed, the FQCN cannot be resolved properly and should be
             // resolved separately.
             if (fqcn.equals(type) && type.indexOf(".") == -1) {
-                fqcn = Util.ElementUtils.getPackageOf(Util.getTopLevelTypeElement(e)).getQualifiedName() + "." + type;
+                fqcn = context.elements.getPackageOf(Util.getTopLevelTypeElement(e)).getQualifiedName() + "." + type;
             }
             return new String[] {fqcn, qualify(member)};
         }
@@ -532,9 +537,9 @@ public class DocumentInfo {
             if (node.getName().contentEquals("class")) {
                 for (String lang : node.getValue().toString().split(" ")) {
                     if (lang.startsWith("lang-")) {
-                        CodeHighlighter.addLanguage(lang.substring(5));
+                        context.highlighter.addLanguage(lang.substring(5));
                     } else if (lang.startsWith("language-")) {
-                        CodeHighlighter.addLanguage(lang.substring(9));
+                        context.highlighter.addLanguage(lang.substring(9));
                     }
                 }
             }
@@ -631,7 +636,7 @@ public class DocumentInfo {
             boolean plain = node.getTagName().equals("linkplain");
 
             if (code) {
-                writeSourceCode(SourceCode.read(id[0], id[1], plain), "java");
+                writeSourceCode(SourceCode.read(context.samples, id[0], id[1], plain), "java");
             } else {
                 if (uri == null) {
                     text.append(ref);
@@ -770,7 +775,7 @@ public class DocumentInfo {
         private void writeSourceCode(String code, String lang) {
             lang = lang.trim().toLowerCase();
 
-            CodeHighlighter.addLanguage(lang);
+            context.highlighter.addLanguage(lang);
 
             text.append("<pre class='lang-").append(lang).append("'><code>");
             text.append(resolve(code.trim()));
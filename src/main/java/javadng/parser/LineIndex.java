@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.sun.source.tree.CompilationUnitTree;
+
+import kiss.I;
+
+/**
+ * The line-offset table of the source file. It is computed only once per compilation unit, and
+ * the line number is looked up by binary search.
+ */
+final class LineIndex {
+
+    /** The compilation unit mapping. */
+    private static final Map<CompilationUnitTree, LineIndex> indexes = new WeakHashMap();
+
+    /** The source contents. */
+    final String content;
+
+    /** The start offset of each line. */
+    private final int[] starts;
+
+    /**
+     * @param content The source contents.
+     */
+    LineIndex(CharSequence content) {
+        this.content = content.toString();
+
+        int count = 1;
+        int[] starts = new int[64];
+        for (int i = 0; i < this.content.length(); i++) {
+            if (this.content.charAt(i) == '\n') {
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = i + 1;
+            }
+        }
+        this.starts = Arrays.copyOf(starts, count);
+    }
+
+    /**
+     * Compute the line number (1-based) of the specified offset.
+     * 
+     * @param offset A character offset.
+     * @return
+     */
+    int line(int offset) {
+        int index = Arrays.binarySearch(starts, offset);
+        return index < 0 ? -index - 1 : index + 1;
+    }
+
+    /**
+     * Compute the number of lines.
+     * 
+     * @return
+     */
+    int lines() {
+        return starts.length;
+    }
+
+    /**
+     * Get the line-offset table of the specified compilation unit.
+     * 
+     * @param cut A compilation unit.
+     * @return
+     */
+    static LineIndex of(CompilationUnitTree cut) {
+        synchronized (indexes) {
+            return indexes.computeIfAbsent(cut, key -> {
+                try {
+                    return new LineIndex(key.getSourceFile().getCharContent(true));
+                } catch (IOException e) {
+                    throw I.quiet(e);
+                }
+            });
+        }
+    }
+}
@@ -9,8 +9,8 @@
  */
 package javadng.parser;
 
-import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
 import java.util.ListIterator;
@@ -18,15 +18,11 @@ import java.util.stream.Collectors;
 
 import javax.lang.model.element.Element;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.Node;
-import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.RecordDeclaration;
-import com.github.javaparser.ast.body.VariableDeclarator;
-import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.util.DocSourcePositions;
 import com.sun.source.util.TreePath;
@@ -39,10 +35,12 @@ public class SourceCode {
 
     /**
      * Get the source code of the specified class.
+     * 
+     * @param samples The list of sample directories.
      */
-    public static String read(String fqcn, String memberDescriptor, boolean bodyOnly) {
+    public static String read(List<Directory> samples, String fqcn, String memberDescriptor, boolean bodyOnly) {
         try {
-            for (Directory sample : Util.Samples) {
+            for (Directory sample : samples) {
                 List<String> split = List.of(fqcn.split("\\."));
                 int max = split.size();
                 int current = max;
@@ -53,62 +51,46 @@ public class SourceCode {
                         if (current + 1 != max) split.subList(current + 1, max).forEach(members::add);
                         if (memberDescriptor != null) members.add(memberDescriptor);
 
-                        Node parsed = StaticJavaParser.parse(file.asJavaFile());
-                        Node node = parsed.findRootNode().removeComment();
-
-                        // remove package declaration
-                        node.findAll(PackageDeclaration.class).forEach(PackageDeclaration::remove);
-
-                        // remove unnecessary annotations
-                        for (MethodDeclaration method : node.findAll(MethodDeclaration.class)) {
-                            String[] removables = {"Override", "SuppressWarnings"};
-                            for (String removable : removables) {
-                                method.getAnnotationByName(removable).ifPresent(AnnotationExpr::remove);
-                            }
-                        }
+                        SourceFile source = SourceFile.of(file.asJavaPath());
+                        Node node = source.root;
 
-                        root: while (!members.isEmpty()) {
+                        while (!members.isEmpty()) {
                             memberDescriptor = members.pollFirst();
+                            SourceFile.Scope scope = source.scope(node);
 
-                            for (MethodDeclaration method : node.findAll(MethodDeclaration.class)) {
-                                if (method.getSignature().asString().equals(memberDescriptor)) {
-                                    return readCode(file, method, bodyOnly);
-                                }
+                            MethodDeclaration method = scope.methods.get(memberDescriptor);
+                            if (method != null) {
+                                return readCode(source, method, bodyOnly);
                             }
 
-                            for (ClassOrInterfaceDeclaration type : node.findAll(ClassOrInterfaceDeclaration.class)) {
-                                if (type.getNameAsString().equals(memberDescriptor)) {
-                                    if (members.isEmpty()) {
-                                        return readCode(file, type, bodyOnly);
-                                    } else {
-                                        node = type;
-                                        continue root;
-                                    }
+                            ClassOrInterfaceDeclaration type = scope.types.get(memberDescriptor);
+                            if (type != null) {
+                                if (members.isEmpty()) {
+                                    return readCode(source, type, bodyOnly);
+                                } else {
+                                    node = type;
+                                    continue;
                                 }
                             }
 
-                            for (RecordDeclaration type : node.findAll(RecordDeclaration.class)) {
-                                if (type.getNameAsString().equals(memberDescriptor)) {
-                                    if (members.isEmpty()) {
-                                        String code = readCode(file, type, bodyOnly);
+                            RecordDeclaration record = scope.records.get(memberDescriptor);
+                            if (record != null) {
+                                if (members.isEmpty()) {
+                                    String code = readCode(source, record, bodyOnly);
 
-                                        // special optimization for empty record
-                                        code = code.replaceAll("\\s*\\{\\s+\\}\\s*$", "");
+                                    // special optimization for empty record
+                                    code = code.replaceAll("\\s*\\{\\s+\\}\\s*$", "");
 
-                                        return code;
-                                    } else {
-                                        node = type;
-                                        continue root;
-                                    }
+                                    return code;
+                                } else {
+                                    node = record;
+                                    continue;
                                 }
                             }
 
-                            for (FieldDeclaration field : node.findAll(FieldDeclaration.class)) {
-                                for (VariableDeclarator variable : field.findAll(VariableDeclarator.class)) {
-                                    if (variable.getNameAsString().equals(memberDescriptor)) {
-                                        return readCode(file, field, false);
-                                    }
-                                }
+                            FieldDeclaration field = scope.fields.get(memberDescriptor);
+                            if (field != null) {
+                                return readCode(source, field, false);
                             }
                         }
                         return node.toString();
@@ -124,11 +106,11 @@ public class SourceCode {
     /**
      * Get the source code from source file.
      * 
-     * @param file
+     * @param source
      * @param node
      * @return
      */
-    static String readCode(File file, Node node, boolean bodyOnly) {
+    static String readCode(SourceFile source, Node node, boolean bodyOnly) {
         int start = node.getBegin().get().line;
         int end = node.getEnd().get().line;
         if (node instanceof FieldDeclaration) start--;
@@ -136,7 +118,9 @@ public class SourceCode {
             start += 2;
             end--;
         }
-        String code = file.lines().skip(start - 1).take(end - start + 1).scan(Collectors.joining("\r\n")).to().exact();
+        int from = Math.max(0, start - 1);
+        int to = Math.max(from, Math.min(end, source.lines.length));
+        String code = String.join("\r\n", Arrays.asList(source.lines).subList(from, to));
         return stripHeaderWhitespace(code);
     }
 
@@ -147,18 +131,14 @@ public class SourceCode {
      * @return
      */
     public static String read(DocumentInfo doc) {
-        try {
-            DocSourcePositions positions = Util.DocUtils.getSourcePositions();
+        DocSourcePositions positions = doc.context.docs.getSourcePositions();
 
-            TreePath path = Util.DocUtils.getPath(doc.e);
-            CompilationUnitTree cut = path.getCompilationUnit();
+        TreePath path = doc.context.docs.getPath(doc.e);
+        CompilationUnitTree cut = path.getCompilationUnit();
 
-            int start = (int) positions.getStartPosition(cut, path.getLeaf());
-            int end = (int) positions.getEndPosition(cut, path.getLeaf());
-            return stripHeaderWhitespace(cut.getSourceFile().getCharContent(true).subSequence(start, end).toString());
-        } catch (IOException error) {
-            throw I.quiet(error);
-        }
+        int start = (int) positions.getStartPosition(cut, path.getLeaf());
+        int end = (int) positions.getEndPosition(cut, path.getLeaf());
+        return stripHeaderWhitespace(LineIndex.of(cut).content.substring(start, end));
     }
 
     /**
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.Node.TreeTraversal;
+import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+
+import kiss.I;
+
+/**
+ * The parsed sample source file. The parsed tree and the lines are cached by the path and the
+ * last modified time, so the sample file which is referred many times is parsed only once.
+ */
+final class SourceFile {
+
+    /** The maximum number of cached files. */
+    private static final int LIMIT = 128;
+
+    /**
+     * The parser configuration. The configuration of StaticJavaParser is thread-local, so it is not
+     * applied to the parallel builds and renderings.
+     */
+    private static final ParserConfiguration CONFIGURATION = new ParserConfiguration().setLanguageLevel(LanguageLevel.CURRENT);
+
+    /** The LRU cache by path. */
+    private static final Map<Path, SourceFile> files = new LinkedHashMap<>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Entry<Path, SourceFile> eldest) {
+            return LIMIT < size();
+        }
+    };
+
+    /** The last modified time. */
+    private final long modified;
+
+    /** The parsed tree without comments, package declaration and unnecessary annotations. */
+    final Node root;
+
+    /** The lines of the source file. */
+    final String[] lines;
+
+    /** The member index for each scope. */
+    private final Map<Node, Scope> scopes = new IdentityHashMap();
+
+    /**
+     * @param modified The last modified time.
+     * @param text The source contents.
+     */
+    private SourceFile(long modified, String text) {
+        this.modified = modified;
+        this.lines = text.lines().toArray(String[]::new);
+
+        ParseResult<CompilationUnit> result = new JavaParser(CONFIGURATION).parse(text);
+        if (!result.isSuccessful()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        Node node = result.getResult().get().findRootNode().removeComment();
+
+        // remove package declaration
+        node.findAll(PackageDeclaration.class).forEach(PackageDeclaration::remove);
+
+        // remove unnecessary annotations
+        for (MethodDeclaration method : node.findAll(MethodDeclaration.class)) {
+            String[] removables = {"Override", "SuppressWarnings"};
+            for (String removable : removables) {
+                method.getAnnotationByName(removable).ifPresent(AnnotationExpr::remove);
+            }
+        }
+        this.root = node;
+    }
+
+    /**
+     * Get the member index in the specified scope.
+     * 
+     * @param node A scope node.
+     * @return
+     */
+    synchronized Scope scope(Node node) {
+        return scopes.computeIfAbsent(node, Scope::new);
+    }
+
+    /**
+     * Get the parsed source file.
+     * 
+     * @param path A path to the source file.
+     * @return
+     */
+    static SourceFile of(Path path) {
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+
+            synchronized (files) {
+                SourceFile file = files.get(path);
+                if (file == null || file.modified != modified) {
+                    file = new SourceFile(modified, Files.readString(path, StandardCharsets.UTF_8));
+                    files.put(path, file);
+                }
+                return file;
+            }
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * The members in the scope. Each name is mapped to the first declaration in pre-order, which is
+     * the same as the first match of {@link Node#findAll(Class)}.
+     */
+    static final class Scope {
+
+        /** The method by signature. */
+        final Map<String, MethodDeclaration> methods = new HashMap();
+
+        /** The class or interface by name. */
+        final Map<String, ClassOrInterfaceDeclaration> types = new HashMap();
+
+        /** The record by name. */
+        final Map<String, RecordDeclaration> records = new HashMap();
+
+        /** The field by variable name. */
+        final Map<String, FieldDeclaration> fields = new HashMap();
+
+        /**
+         * @param scope A scope node.
+         */
+        private Scope(Node scope) {
+            scope.walk(TreeTraversal.PREORDER, node -> {
+                if (node instanceof MethodDeclaration method) {
+                    methods.putIfAbsent(method.getSignature().asString(), method);
+                } else if (node instanceof ClassOrInterfaceDeclaration type) {
+                    types.putIfAbsent(type.getNameAsString(), type);
+                } else if (node instanceof RecordDeclaration record) {
+                    records.putIfAbsent(record.getNameAsString(), record);
+                } else if (node instanceof FieldDeclaration field) {
+                    for (VariableDeclarator variable : field.findAll(VariableDeclarator.class)) {
+                        fields.putIfAbsent(variable.getNameAsString(), field);
+                    }
+                }
+            });
+        }
+    }
+}
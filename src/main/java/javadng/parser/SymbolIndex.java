@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searchable index of all documented symbols (types, constructors, methods and fields) for the
+ * client side search. Each symbol is registered under its lower-cased simple name and its
+ * camel-case humps (e.g. {@code getByName} is found by {@code gbn}), all keys are sorted and
+ * front-coded, then split into the fixed-size shards which are loaded lazily by the browser.
+ */
+public final class SymbolIndex {
+
+    /** The default number of keys in each shard. */
+    static final int SHARD_SIZE = 4096;
+
+    /** The longest shared prefix which can be encoded in one character. */
+    private static final int MAX_SHARED = Character.MAX_RADIX - 1;
+
+    /** The sorting order of the entries. */
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, String> comparing(e -> e.key())
+            .thenComparing(e -> e.name())
+            .thenComparing(e -> e.owner())
+            .thenComparing(e -> e.anchor());
+
+    /** The registered entries. */
+    private final List<Entry> entries = new ArrayList();
+
+    /** The number of keys in each shard. */
+    private final int shardSize;
+
+    /** The sorted flag. */
+    private boolean sorted;
+
+    /**
+     * Create empty index.
+     */
+    public SymbolIndex() {
+        this(SHARD_SIZE);
+    }
+
+    /**
+     * Create empty index.
+     *
+     * @param shardSize The number of keys in each shard.
+     */
+    SymbolIndex(int shardSize) {
+        if (shardSize < 1) {
+            throw new IllegalArgumentException("Shard size must be positive.");
+        }
+        this.shardSize = shardSize;
+    }
+
+    /**
+     * Build the index of all symbols in the specified data.
+     *
+     * @param data The scanned data.
+     * @return
+     */
+    public static SymbolIndex of(Data data) {
+        SymbolIndex index = new SymbolIndex();
+        for (ClassInfo type : data.types) {
+            index.add(type.type, type.name, type.packageName, "");
+
+            String id = type.id();
+            for (ExecutableInfo constructor : type.constructors()) {
+                index.add("Constructor", constructor.name, id, constructor.id());
+            }
+            for (MethodInfo method : type.methods()) {
+                index.add("Method", method.name, id, method.id());
+            }
+            for (FieldInfo field : type.fields()) {
+                index.add("Field", field.name, id, field.id());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Register the symbol.
+     *
+     * @param kind The kind of symbol. The type kind (e.g. Class, Interface) for types, otherwise
+     *            Constructor, Method or Field.
+     * @param name The simple name of symbol.
+     * @param owner The package name for types, otherwise the fully qualified name of the
+     *            declaring type.
+     * @param anchor The member id in the page of the declaring type, empty for types.
+     */
+    void add(String kind, String name, String owner, String anchor) {
+        String key = key(name);
+        entries.add(new Entry(key, kind, name, owner, anchor));
+
+        String humps = humps(name);
+        if (humps.length() > 1 && !humps.equals(key)) {
+            entries.add(new Entry(humps, kind, name, owner, anchor));
+        }
+        sorted = false;
+    }
+
+    /**
+     * Compute the number of keys.
+     *
+     * @return
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Build the manifest which lists up the first key of each shard.
+     *
+     * @return
+     */
+    public Manifest manifest() {
+        sort();
+
+        Manifest manifest = new Manifest();
+        manifest.size = entries.size();
+        for (int i = 0; i < entries.size(); i += shardSize) {
+            manifest.shards.add(entries.get(i).key);
+        }
+        return manifest;
+    }
+
+    /**
+     * Build all shards in key order.
+     *
+     * @return
+     */
+    public List<Shard> shards() {
+        sort();
+
+        List<Shard> shards = new ArrayList();
+        for (int i = 0; i < entries.size(); i += shardSize) {
+            StringBuilder keys = new StringBuilder();
+            StringBuilder symbols = new StringBuilder();
+            String previous = "";
+
+            for (Entry entry : entries.subList(i, Math.min(i + shardSize, entries.size()))) {
+                if (!keys.isEmpty()) {
+                    keys.append('\n');
+                    symbols.append('\n');
+                }
+
+                int shared = Math.min(shared(previous, entry.key), MAX_SHARED);
+                keys.append(Character.forDigit(shared, Character.MAX_RADIX)).append(entry.key, shared, entry.key.length());
+                symbols.append(entry.kind).append('\t').append(entry.name).append('\t').append(entry.owner).append('\t').append(entry.anchor);
+                previous = entry.key;
+            }
+
+            Shard shard = new Shard();
+            shard.keys = keys.toString();
+            shard.symbols = symbols.toString();
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    /**
+     * Sort entries only when they are modified.
+     */
+    private void sort() {
+        if (!sorted) {
+            entries.sort(ORDER);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Compute the search key of the specified name.
+     *
+     * @param name A symbol name.
+     * @return
+     */
+    static String key(String name) {
+        // nested type is found by its own name
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Compute the camel-case humps of the specified name. (e.g. getByName is gbn, HTMLParser is
+     * hp)
+     *
+     * @param name A symbol name.
+     * @return
+     */
+    static String humps(String name) {
+        name = name.substring(name.lastIndexOf('.') + 1);
+
+        StringBuilder humps = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+
+            if (i == 0 || name.charAt(i - 1) == '_') {
+                if (c != '_') humps.append(c);
+            } else if (Character.isUpperCase(c) && !Character.isUpperCase(name.charAt(i - 1))) {
+                humps.append(c);
+            } else if (Character.isUpperCase(c) && i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1))) {
+                humps.append(c);
+            }
+        }
+        return humps.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Restore the front-coded keys.
+     *
+     * @param keys The encoded keys of the shard.
+     * @return
+     */
+    static List<String> decode(String keys) {
+        List<String> decoded = new ArrayList();
+        String previous = "";
+        for (String key : keys.split("\n")) {
+            previous = previous.substring(0, Character.digit(key.charAt(0), Character.MAX_RADIX)) + key.substring(1);
+            decoded.add(previous);
+        }
+        return decoded;
+    }
+
+    /**
+     * Compute the length of the common prefix.
+     *
+     * @param one
+     * @param other
+     * @return
+     */
+    private static int shared(String one, String other) {
+        int max = Math.min(one.length(), other.length());
+        for (int i = 0; i < max; i++) {
+            if (one.charAt(i) != other.charAt(i)) {
+                return i;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Registered symbol.
+     */
+    private record Entry(String key, String kind, String name, String owner, String anchor) {
+    }
+
+    /**
+     * The entry point of the index.
+     */
+    public static class Manifest {
+
+        /** The total number of keys. */
+        public int size;
+
+        /** The first key of each shard. */
+        public List<String> shards = new ArrayList();
+    }
+
+    /**
+     * The subset of index.
+     */
+    public static class Shard {
+
+        /**
+         * The front-coded keys separated by line feed. Each key starts with the length of the
+         * prefix shared with the previous key as one base-36 digit.
+         */
+        public String keys;
+
+        /** The symbols separated by line feed, each has kind, name, owner and anchor by tab. */
+        public String symbols;
+    }
+}
@@ -18,16 +18,16 @@ import java.util.Map;
 public class TemplateStore extends HashMap<String, String> {
     private static final long serialVersionUID = -4452932715112144902L;
 
-    private static final TemplateStore Root = new TemplateStore();
-
-    private TemplateStore() {
+    /**
+     * Create the root store.
+     */
+    public TemplateStore() {
     }
 
     TemplateStore(TemplateStore parent) {
-        if (parent == null) {
-            parent = Root;
+        if (parent != null) {
+            putAll(parent);
         }
-        putAll(parent);
     }
 
     /**
@@ -36,7 +36,7 @@ public class TemplateStore extends HashMap<String, String> {
      * @param key
      * @param value
      */
-    public static final void register(String key, String value) {
-        Root.put(key, value);
+    public final void register(String key, String value) {
+        put(key, value);
     }
 }
\ No newline at end of file
@@ -17,7 +17,6 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -76,6 +75,9 @@ public class TypeResolver {
     /** Imported types. */
     private final Map<String, String> importedTypes = new HashMap();
 
+    /** The build context. */
+    private final BuildContext context = BuildContext.current();
+
     /**
      * @param externals
      */
@@ -93,7 +95,7 @@ public class TypeResolver {
      * @param clazz
      */
     private void collectImportedTypes(Element clazz) {
-        I.signal(Util.DocUtils.getPath(clazz))
+        I.signal(context.docs.getPath(clazz))
                 .take(tree -> tree.getKind() == Kind.COMPILATION_UNIT)
                 .as(CompilationUnitTree.class)
                 .flatIterable(CompilationUnitTree::getImports)
@@ -191,8 +193,8 @@ public class TypeResolver {
         String externalURL = externals.get(type.packageName);
 
         if (externalURL != null) {
+            // the external URL already contains the module name if the document is modular
             StringBuilder builder = new StringBuilder(externalURL);
-            if (type.moduleName.length() != 0) builder.append(type.moduleName).append('/');
             if (type.packageName.length() != 0) builder.append(type.packageName.replace('.', '/')).append('/');
             if (type.enclosingName.length() != 0) builder.append(type.enclosingName).append('.');
             builder.append(type.typeName).append(".html");
@@ -250,7 +252,7 @@ public class TypeResolver {
             typeName = resolveFQCN(typeName);
         }
 
-        TypeElement type = Util.ElementUtils.getTypeElement(typeName);
+        TypeElement type = context.elements.getTypeElement(typeName);
 
         if (type == null) {
             int index = typeName.lastIndexOf('.');
@@ -281,16 +283,6 @@ public class TypeResolver {
 
         private String moduleName = "";
 
-        /**
-         * If this type can identify the source, it will be converted to {@link TypeElement}.
-         * Otherwise, empty is returned.
-         * 
-         * @return
-         */
-        private Optional<TypeElement> asElement() {
-            return Optional.ofNullable(Util.ElementUtils.getTypeElement(packageName + "." + enclosingName + "." + typeName));
-        }
-
         /**
          * {@inheritDoc}
          */
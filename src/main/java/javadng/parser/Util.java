@@ -9,10 +9,8 @@
  */
 package javadng.parser;
 
-import java.io.IOException;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -20,38 +18,18 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
-import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
-import com.github.javaparser.ParserConfiguration.LanguageLevel;
-import com.github.javaparser.StaticJavaParser;
 import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.util.DocSourcePositions;
 import com.sun.source.util.DocTrees;
 import com.sun.source.util.TreePath;
 
-import kiss.I;
-import psychopath.Directory;
+import javadng.BuildCache;
 
 public final class Util {
 
-    static {
-        StaticJavaParser.getParserConfiguration().setLanguageLevel(LanguageLevel.CURRENT);
-    }
-
-    /** Guilty Accessor. */
-    public static DocTrees DocUtils;
-
-    /** Guilty Accessor. */
-    public static Elements ElementUtils;
-
-    /** Guilty Accessor. */
-    public static Types TypeUtils;
-
-    /** Guilty Accessor. */
-    public static List<Directory> Samples;
-
     /**
      * Find the top-level {@link TypeElement} (not member class).
      * 
@@ -75,29 +53,28 @@ public final class Util {
      * @return
      */
     public static int[] getDocumentLineNumbers(Element e) {
-        try {
-            DocSourcePositions positions = DocUtils.getSourcePositions();
-
-            TreePath path = Util.DocUtils.getPath(e);
-            CompilationUnitTree cut = path.getCompilationUnit();
-
-            DocCommentTree tree = Util.DocUtils.getDocCommentTree(e);
-            int start = (int) positions.getStartPosition(cut, tree, tree);
-            int end = (int) positions.getEndPosition(cut, tree, tree);
-
-            int[] lines = {1, 1};
-            CharSequence chars = cut.getSourceFile().getCharContent(true);
-            for (int i = 0; i < end; i++) {
-                if (i == start) {
-                    lines[0] = lines[1];
-                }
-                if (chars.charAt(i) == '\n') lines[1]++;
-            }
+        DocTrees docs = BuildContext.current().docs;
+        DocSourcePositions positions = docs.getSourcePositions();
 
-            return lines;
-        } catch (IOException x) {
-            throw I.quiet(x);
-        }
+        TreePath path = docs.getPath(e);
+        CompilationUnitTree cut = path.getCompilationUnit();
+
+        DocCommentTree tree = docs.getDocCommentTree(e);
+        int start = (int) positions.getStartPosition(cut, tree, tree);
+        int end = (int) positions.getEndPosition(cut, tree, tree);
+
+        LineIndex index = LineIndex.of(cut);
+        return new int[] {index.line(start), index.line(end)};
+    }
+
+    /**
+     * Compute the fingerprint of the source file which declares the specified {@link Element}.
+     * 
+     * @param e
+     * @return
+     */
+    public static String getSourceHash(Element e) {
+        return BuildCache.hash(LineIndex.of(BuildContext.current().docs.getPath(e).getCompilationUnit()).content);
     }
 
     /**
@@ -107,10 +84,11 @@ public final class Util {
      * @return
      */
     public static Set<TypeMirror>[] getAllTypes(Element type) {
+        Types types = BuildContext.current().types;
         Set<TypeMirror> supers = new LinkedHashSet();
         Set<TypeMirror> interfaces = new TreeSet<>(Comparator
-                .<TypeMirror, String> comparing(t -> ((TypeElement) Util.TypeUtils.asElement(t)).getSimpleName().toString()));
-        collect(type.asType(), supers, interfaces);
+                .<TypeMirror, String> comparing(t -> ((TypeElement) types.asElement(t)).getSimpleName().toString()));
+        collect(types, type.asType(), supers, interfaces);
 
         return new Set[] {supers, interfaces};
     }
@@ -118,23 +96,24 @@ public final class Util {
     /**
      * Collect all types.
      * 
+     * @param types
      * @param type
      * @param superTypes
      * @param interfaceTypes
      */
-    private static void collect(TypeMirror type, Set<TypeMirror> superTypes, Set<TypeMirror> interfaceTypes) {
-        for (TypeMirror up : Util.TypeUtils.directSupertypes(type)) {
+    private static void collect(Types types, TypeMirror type, Set<TypeMirror> superTypes, Set<TypeMirror> interfaceTypes) {
+        for (TypeMirror up : types.directSupertypes(type)) {
             if (up.toString().equals("java.lang.Object")) {
                 continue;
             }
 
-            Element e = Util.TypeUtils.asElement(up);
+            Element e = types.asElement(up);
             if (e.getKind() == ElementKind.INTERFACE) {
                 interfaceTypes.add(up);
             } else {
                 superTypes.add(up);
             }
-            collect(up, superTypes, interfaceTypes);
+            collect(types, up, superTypes, interfaceTypes);
         }
     }
 }
\ No newline at end of file
@@ -10,8 +10,11 @@
 package javadng.repository;
 
 import java.net.URI;
+import java.time.Duration;
 
 import javadng.page.DocumentProvider;
+import javadng.web.WebCache;
+import kiss.Variable;
 
 public abstract class CodeRepository {
 
@@ -50,6 +53,13 @@ public abstract class CodeRepository {
      */
     public abstract String locateEditor(String file, int[] lines);
 
+    /**
+     * Read the change log text.
+     * 
+     * @return The change log, or empty if it is not available.
+     */
+    public abstract Variable<String> getChangeLogText();
+
     /**
      * Build the document for change log.
      * 
@@ -65,6 +75,13 @@ public abstract class CodeRepository {
      */
     public abstract String getLatestPublishedDate();
 
+    /**
+     * Build the published date of the latest release.
+     * 
+     * @return The date, or empty if the repository has no release.
+     */
+    public abstract Variable<String> getLatestReleaseDate();
+
     /**
      * Build {@link CodeRepository} by URI.
      * 
@@ -85,13 +102,25 @@ public abstract class CodeRepository {
      * @return
      */
     public static CodeRepository of(URI uri) {
+        return of(uri, WebCache.global().ttl(Duration.ofMinutes(10)));
+    }
+
+    /**
+     * Build {@link CodeRepository} by URI. The repository metadata are loaded asynchronously
+     * through the specified cache.
+     * 
+     * @param uri
+     * @param cache
+     * @return
+     */
+    public static CodeRepository of(URI uri, WebCache cache) {
         if (uri == null) {
             return null;
         }
 
         switch (uri.getHost()) {
         case "github.com":
-            return new Github(uri);
+            return new Github(uri, cache);
 
         default:
             return null;
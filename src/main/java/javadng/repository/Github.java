@@ -9,11 +9,15 @@
  */
 package javadng.repository;
 
+import java.io.StringReader;
 import java.net.URI;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,8 +28,10 @@ import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 
 import javadng.page.DocumentProvider;
+import javadng.web.WebCache;
 import kiss.I;
 import kiss.JSON;
+import kiss.Variable;
 import kiss.XML;
 
 /**
@@ -33,22 +39,55 @@ import kiss.XML;
  */
 class Github extends CodeRepository {
 
+    /** The executor for metadata loading. */
+    private static final Executor ASYNC = Executors.newVirtualThreadPerTaskExecutor();
+
     private final String owner;
 
     private final String name;
 
-    private final String branch;
+    /** The default branch. (async) */
+    private final CompletableFuture<String> branch;
+
+    /** The published date of the latest release. (async) */
+    private final CompletableFuture<Variable<String>> published;
 
-    private String published;
+    /** The change log text. (async) */
+    private final CompletableFuture<Variable<String>> changelog;
 
-    Github(URI uri) {
+    /**
+     * All metadata are loaded asynchronously through the specified cache, so the loading overlaps
+     * with the scanning phase.
+     * 
+     * @param uri A repository URI.
+     * @param cache A metadata cache.
+     */
+    Github(URI uri, WebCache cache) {
         String path = uri.getPath();
         int index = path.indexOf('/', 1);
         this.owner = path.substring(1, index);
         this.name = path.substring(index + 1);
 
-        JSON json = I.json("https://api.github.com/repos" + path);
-        this.branch = json.get(String.class, "default_branch");
+        String api = "https://api.github.com/repos/" + owner + "/" + name;
+        this.branch = CompletableFuture.supplyAsync(() -> read(cache, api, "default_branch").or("main"), ASYNC);
+        this.published = CompletableFuture
+                .supplyAsync(() -> read(cache, api + "/releases/latest", "published_at").map(date -> date.substring(0, 10)), ASYNC);
+        this.changelog = branch.thenApplyAsync(defaultBranch -> cache.text(locateChangeLog(defaultBranch)), ASYNC);
+    }
+
+    /**
+     * Read the property of JSON resource.
+     * 
+     * @param cache
+     * @param uri
+     * @param key
+     * @return
+     */
+    private static Variable<String> read(WebCache cache, String uri, String key) {
+        return cache.text(uri).map(text -> {
+            JSON json = I.json(new StringReader(text));
+            return json.get(String.class, key);
+        });
     }
 
     /**
@@ -72,6 +111,16 @@ class Github extends CodeRepository {
      */
     @Override
     public String locateChangeLog() {
+        return locateChangeLog(branch.join());
+    }
+
+    /**
+     * Compute the change log URL on the specified branch.
+     * 
+     * @param branch
+     * @return
+     */
+    private String locateChangeLog(String branch) {
         return "https://raw.githubusercontent.com/" + owner + "/" + name + "/" + branch + "/CHANGELOG.md";
     }
 
@@ -91,7 +140,7 @@ class Github extends CodeRepository {
         if (lines == null || lines.length == 0) {
             return null;
         }
-        return locate() + "/edit/" + branch + "/src/test/java/" + file + "#L" + lines[0] + "-L" + lines[1];
+        return locate() + "/edit/" + branch.join() + "/src/test/java/" + file + "#L" + lines[0] + "-L" + lines[1];
     }
 
     /**
@@ -136,19 +185,24 @@ class Github extends CodeRepository {
      * {@inheritDoc}
      */
     @Override
-    public synchronized String getLatestPublishedDate() {
-        if (published == null) {
-            String date = I.http("https://github.com/" + owner + "/" + name + "/releases/latest", XML.class)
-                    .waitForTerminate()
-                    .map(html -> html.find(".markdown-body h2").first().text())
-                    .to()
-                    .or(LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
-
-            int start = date.indexOf('(');
-            int end = date.lastIndexOf(')');
-            published = start == -1 ? date : date.substring(start + 1, end);
-        }
-        return published;
+    public Variable<String> getChangeLogText() {
+        return changelog.join();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getLatestPublishedDate() {
+        return getLatestReleaseDate().or(LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Variable<String> getLatestReleaseDate() {
+        return published.join();
     }
 
     /**
@@ -9,38 +9,110 @@
  */
 package javadng.web;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import kiss.I;
+import kiss.Variable;
 
 public class CodeHighlighter {
 
+    /** The default location of the grammars. */
+    public static final String CDN = "https://unpkg.com/@highlightjs/cdn-assets@11.7.0/es/languages/";
+
     /** The language set to highlight code. */
-    private static final Set<String> languages = new HashSet();
+    private final Set<String> languages = ConcurrentHashMap.newKeySet();
+
+    /** The remote location of the grammars. */
+    private String base = CDN;
+
+    /** The local directory of the grammars. (nullable) */
+    private Path local;
+
+    /** The cache of the remote grammars. */
+    private WebCache cache;
 
     /**
      * Add language to highlight.
      * 
      * @param language
      */
-    public static void addLanguage(String language) {
+    public void addLanguage(String language) {
         if (language != null && !language.isEmpty()) {
             languages.add(language);
         }
     }
 
     /**
-     * Build highlighting code.
+     * Specify the remote location of the grammars. The grammar file "{base}{language}.min.js" is
+     * downloaded through {@link WebCache}, so the location should contain the version.
+     * 
+     * @param base A base URL.
+     * @param cache A cache of the downloaded grammars.
+     */
+    public void useRemoteGrammars(String base, WebCache cache) {
+        if (base != null) this.base = base.endsWith("/") ? base : base + "/";
+        this.cache = cache;
+    }
+
+    /**
+     * Specify the local directory of the grammars. The grammar file "{language}.min.js" (or
+     * "{language}.js") in this directory takes precedence over the remote one.
+     * 
+     * @param directory A local directory.
+     */
+    public void useLocalGrammars(Path directory) {
+        this.local = directory;
+    }
+
+    /**
+     * Build highlighting code. The missing grammars are fetched in parallel.
+     * 
+     * @return
+     */
+    public List<String> build() {
+        WebCache cache = this.cache == null ? WebCache.global() : this.cache;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Variable<String>>> grammars = new ArrayList();
+            for (String language : new TreeSet<>(languages)) {
+                grammars.add(CompletableFuture.supplyAsync(() -> read(language, cache)
+                        .map(text -> text.replaceAll("export default hljsGrammar", "J.registerLanguage('" + language + "', hljsGrammar)")), executor));
+            }
+            return I.signal(grammars).map(CompletableFuture::join).skip(Variable::isAbsent).map(Variable::exact).toList();
+        }
+    }
+
+    /**
+     * Read the grammar of the specified language.
      * 
+     * @param language
+     * @param cache
      * @return
      */
-    public static List<String> build() {
-        return I.signal(languages)
-                .flatMap(x -> I.http("https://unpkg.com/@highlightjs/cdn-assets@11.7.0/es/languages/" + x + ".min.js", String.class)
-                        .waitForTerminate()
-                        .map(text -> text.replaceAll("export default hljsGrammar", "J.registerLanguage('" + x + "', hljsGrammar)")))
-                .toList();
+    private Variable<String> read(String language, WebCache cache) {
+        if (local != null) {
+            for (String name : new String[] {language + ".min.js", language + ".js"}) {
+                Path file = local.resolve(name);
+                if (Files.isRegularFile(file)) {
+                    try {
+                        return Variable.of(Files.readString(file, StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw I.quiet(e);
+                    }
+                }
+            }
+        }
+        return cache.text(base + language + ".min.js");
     }
-}
\ No newline at end of file
+}
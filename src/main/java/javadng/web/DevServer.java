@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local http server to preview the generated site. Each request is handled on its own virtual
+ * thread, and the file is transferred from {@link FileChannel} without loading it into memory. The
+ * cached file in browser is revalidated by ETag and Last-Modified, and the precompressed gzip
+ * variant ("*.gz") is served if the client accepts it. The changed files can be pushed to the
+ * browser by Server-Sent-Events for live reload.
+ */
+public class DevServer {
+
+    /** The http server. */
+    private final HttpServer server;
+
+    /** The request handler. */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** The document root. */
+    private final Path root;
+
+    /** The path prefix to serve files. */
+    private final String prefix;
+
+    /** The event queue for each live reload client. */
+    private final Set<BlockingQueue<String>> clients = ConcurrentHashMap.newKeySet();
+
+    /** The stamp of each file. */
+    private final Map<String, Stamp> snapshot = new HashMap();
+
+    /**
+     * @param root The document root.
+     * @param port The port number.
+     * @param prefix The path prefix to serve files.
+     */
+    private DevServer(Path root, int port, String prefix) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.prefix = prefix;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext(prefix, this::serve);
+    }
+
+    /**
+     * Start the server.
+     * 
+     * @param root The document root.
+     * @param port The port number. (0 means any free port)
+     * @param prefix The path prefix to serve files.
+     * @return The started server.
+     * @throws java.net.BindException If the port is already used.
+     */
+    public static DevServer start(Path root, int port, String prefix) throws IOException {
+        DevServer server = new DevServer(root, port, prefix);
+        server.server.start();
+        return server;
+    }
+
+    /**
+     * Register the additional handler.
+     * 
+     * @param path A context path.
+     * @param handler A request handler.
+     */
+    public void context(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    /**
+     * Enable the live reload. The clients connected to the specified context path receive the list
+     * of changed files as Server-Sent-Events. The output directory is scanned for changes whenever
+     * the trigger file (which is written at the end of the build) is updated.
+     * 
+     * @param path A context path of the event stream.
+     * @param trigger A relative path to the file which is updated at the end of each build.
+     */
+    public void live(String path, String trigger) {
+        synchronized (snapshot) {
+            snapshot.putAll(scan(Map.of()));
+        }
+        server.createContext(path, this::stream);
+
+        Path file = root.resolve(trigger);
+        Thread.ofVirtual().start(() -> {
+            long modified = lastModified(file);
+            while (!executor.isShutdown()) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long time = lastModified(file);
+                if (modified < time) {
+                    modified = time;
+                    notifyChanges();
+                }
+            }
+        });
+    }
+
+    /**
+     * Detect all changed files from the previous detection and push them to the live reload
+     * clients.
+     */
+    public void notifyChanges() {
+        List<String> changed = new ArrayList();
+        synchronized (snapshot) {
+            Map<String, Stamp> current = scan(snapshot);
+            current.forEach((path, stamp) -> {
+                Stamp previous = snapshot.get(path);
+                if (previous == null || previous.checksum != stamp.checksum) changed.add(path);
+            });
+            snapshot.clear();
+            snapshot.putAll(current);
+        }
+        notifyChanges(changed);
+    }
+
+    /**
+     * Push the specified changed files to the live reload clients.
+     * 
+     * @param paths A list of relative paths from the document root.
+     */
+    public void notifyChanges(Collection<String> paths) {
+        if (!paths.isEmpty()) {
+            StringJoiner data = new StringJoiner("\",\"", "[\"", "\"]");
+            for (String path : new TreeSet<>(paths)) {
+                data.add(path.replace("\\", "/").replace("\"", "\\\""));
+            }
+
+            String event = "event: change\ndata: " + data + "\n\n";
+            for (BlockingQueue<String> client : clients) {
+                client.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Keep the event stream for the live reload client.
+     * 
+     * @param exchange
+     */
+    private void stream(HttpExchange exchange) throws IOException {
+        BlockingQueue<String> queue = new LinkedBlockingQueue();
+        clients.add(queue);
+
+        try (exchange) {
+            Headers response = exchange.getResponseHeaders();
+            response.set("Content-Type", "text/event-stream; charset=utf-8");
+            response.set("Cache-Control", "no-cache");
+            response.set("Access-Control-Allow-Origin", "*");
+            exchange.sendResponseHeaders(200, 0);
+
+            OutputStream output = exchange.getResponseBody();
+            output.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+
+            while (!executor.isShutdown()) {
+                // send the comment periodically to detect the disconnected client
+                String event = queue.poll(15, TimeUnit.SECONDS);
+                output.write((event == null ? ": ping\n\n" : event).getBytes(StandardCharsets.UTF_8));
+                output.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // disconnected
+        } finally {
+            clients.remove(queue);
+        }
+    }
+
+    /**
+     * Collect the stamp of all files. The checksum is computed only for the file whose last
+     * modified time was changed, so the rewritten but identical file is not reported.
+     * 
+     * @param previous The previous stamps.
+     * @return
+     */
+    private Map<String, Stamp> scan(Map<String, Stamp> previous) {
+        Map<String, Stamp> stamps = new HashMap();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.forEach(file -> {
+                String path = root.relativize(file).toString().replace('\\', '/');
+                if (isServed(path) && Files.isRegularFile(file)) {
+                    long modified = lastModified(file);
+
+                    Stamp stamp = previous.get(path);
+                    if (stamp == null || stamp.modified != modified) {
+                        try {
+                            CRC32 crc = new CRC32();
+                            crc.update(Files.readAllBytes(file));
+                            stamp = new Stamp(modified, crc.getValue());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    stamps.put(path, stamp);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // the output is being rewritten, detect at the next time
+            return new HashMap(previous);
+        }
+        return stamps;
+    }
+
+    /**
+     * Test whether the specified file is served to the browser by its own name. The hidden files
+     * (build cache and trigger), the temporary files and the precompressed variants are excluded.
+     * 
+     * @param path A relative path from the document root.
+     * @return
+     */
+    static boolean isServed(String path) {
+        return !path.isEmpty() && !path.startsWith(".") && !path.contains("/.") && !path.endsWith(".tmp") && !path.endsWith(".gz") && !path
+                .endsWith(".deflate");
+    }
+
+    /**
+     * The last modified time and the checksum of file.
+     */
+    private record Stamp(long modified, long checksum) {
+    }
+
+    /**
+     * Get the last modified time safely.
+     * 
+     * @param file
+     * @return
+     */
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Compute the URL of the specified file.
+     * 
+     * @param path A relative path from the document root.
+     * @return
+     */
+    public String locate(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + prefix + path;
+    }
+
+    /**
+     * Stop the server.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serve the requested file.
+     * 
+     * @param exchange
+     */
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = method.equals("HEAD");
+            if (!head && !method.equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath().substring(prefix.length());
+            if (path.isEmpty() || path.endsWith("/")) path += "index.html";
+
+            Path file = root.resolve(path).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Headers request = exchange.getRequestHeaders();
+            Headers response = exchange.getResponseHeaders();
+            response.set("Content-Type", mime(file.getFileName().toString()));
+            response.set("Cache-Control", "no-cache");
+            response.set("Vary", "Accept-Encoding");
+
+            // use the precompressed variant
+            Path gzip = file.resolveSibling(file.getFileName() + ".gz");
+            String encodings = request.getFirst("Accept-Encoding");
+            if (encodings != null && encodings.contains("gzip") && Files.isRegularFile(gzip) && !Files.getLastModifiedTime(gzip)
+                    .toInstant()
+                    .isBefore(Files.getLastModifiedTime(file).toInstant())) {
+                file = gzip;
+                response.set("Content-Encoding", "gzip");
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            Instant modified = attributes.lastModifiedTime().toInstant();
+            String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(modified.toEpochMilli()) + (file == gzip ? "-gz\"" : "\"");
+            response.set("ETag", etag);
+            response.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(modified.atZone(ZoneOffset.UTC)));
+
+            if (isNotModified(request, etag, modified)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            if (head) {
+                response.set("Content-Length", String.valueOf(size));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, size == 0 ? -1 : size);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                    OutputStream body = exchange.getResponseBody();
+                    WritableByteChannel output = Channels.newChannel(body)) {
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, output);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the conditional request.
+     * 
+     * @param request
+     * @param etag
+     * @param modified
+     * @return
+     */
+    private boolean isNotModified(Headers request, String etag, Instant modified) {
+        String match = request.getFirst("If-None-Match");
+        if (match != null) {
+            for (String tag : match.split(",")) {
+                tag = tag.strip();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String since = request.getFirst("If-Modified-Since");
+        if (since != null) {
+            try {
+                Instant time = ZonedDateTime.parse(since, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return modified.getEpochSecond() <= time.getEpochSecond();
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Detect mime-type.
+     * 
+     * @param name A file name.
+     * @return
+     */
+    static String mime(String name) {
+        int index = name.lastIndexOf('.');
+        switch (index == -1 ? "" : name.substring(index + 1)) {
+        case "css":
+            return "text/css; charset=utf-8";
+        case "js":
+        case "mjs":
+            return "application/javascript; charset=utf-8";
+        case "json":
+        case "map":
+            return "application/json; charset=utf-8";
+        case "html":
+            return "text/html; charset=utf-8";
+        case "svg":
+            return "image/svg+xml";
+        case "png":
+            return "image/png";
+        case "jpg":
+        case "jpeg":
+            return "image/jpeg";
+        case "gif":
+            return "image/gif";
+        case "webp":
+            return "image/webp";
+        case "ico":
+            return "image/x-icon";
+        case "woff":
+            return "font/woff";
+        case "woff2":
+            return "font/woff2";
+        case "wasm":
+            return "application/wasm";
+        case "txt":
+            return "text/plain; charset=utf-8";
+        default:
+            return "application/octet-stream";
+        }
+    }
+}
@@ -9,103 +9,278 @@
  */
 package javadng.web;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Set;
 
 import kiss.I;
 import psychopath.File;
 import psychopath.Locator;
 
+/**
+ * Single pass JavaScript minifier. It reads the source through the fixed-size character buffer
+ * and writes the result as it goes, so it runs in linear time and constant memory for the size of
+ * script. The whitespace is never written eagerly, it is kept as the pending state and written
+ * only when the next token requires it.
+ */
 public class Minify {
 
-    private final StringBuilder output = new StringBuilder();
+    /** The keywords which can precede the regular expression literal. */
+    private static final Set<String> KEYWORDS = Set
+            .of("return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw", "case", "do", "else", "yield", "await");
+
+    /** The input source. */
+    private final Reader reader;
+
+    /** The input buffer. */
+    private final char[] input = new char[8192];
+
+    /** The current position in the input buffer. */
+    private int inputIndex;
+
+    /** The available size of the input buffer. */
+    private int inputSize;
+
+    /** The output destination. */
+    private final Writer writer;
 
-    private String line;
+    /** The output buffer. */
+    private final char[] output = new char[8192];
 
-    private int index;
+    /** The used size of the output buffer. */
+    private int outputSize;
 
-    private Context current = new Context();
+    /** The last written character except for whitespace. (0 means nothing is written) */
+    private char last;
+
+    /** The last written slash is the division operator. */
+    private boolean division;
+
+    /** The last written identifier or keyword. */
+    private final StringBuilder word = new StringBuilder();
+
+    /** The space is found after the last written character. */
+    private boolean space;
+
+    /** The line break is found after the last written character. */
+    private boolean line;
+
+    /** The current lexical context. */
+    private Context current = new Code(false);
 
     /**
-     * 
+     * @param reader The input source.
+     * @param writer The output destination.
      */
-    private Minify(BufferedReader reader, Writer writer) {
-        try {
-            while ((line = reader.readLine()) != null) {
-                current.startLine();
+    private Minify(Reader reader, Writer writer) {
+        this.reader = reader;
+        this.writer = writer;
+    }
 
-                int length = line.length();
-                for (index = 0; index < length; index++) {
-                    current.text(line.charAt(index));
-                }
-                current.endLine();
+    /**
+     * Process all input.
+     *
+     * @throws IOException
+     */
+    private void run() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '\r') {
+                if (peek() == '\n') read();
+                c = '\n';
             }
-
-            trimBackward(true);
-            writer.append(output).close();
-        } catch (IOException e) {
-            throw I.quiet(e);
+            current.text((char) c);
         }
+        flush();
     }
 
-    private void trimForward() {
-        for (; index + 1 < line.length() && isDeletable(line.charAt(index + 1), false); index++) {
+    /**
+     * Read the next character.
+     *
+     * @return The next character or -1.
+     * @throws IOException
+     */
+    private int read() throws IOException {
+        if (inputIndex == inputSize && !fill()) {
+            return -1;
         }
+        return input[inputIndex++];
     }
 
-    private void trimBackward() {
-        trimBackward(false);
+    /**
+     * Read the next character without consuming it.
+     *
+     * @return The next character or -1.
+     * @throws IOException
+     */
+    private int peek() throws IOException {
+        if (inputIndex == inputSize && !fill()) {
+            return -1;
+        }
+        return input[inputIndex];
     }
 
-    private void trimBackward(boolean includeLine) {
-        int index = output.length() - 1;
-
-        if (index == -1) {
-            return;
+    /**
+     * Fill the input buffer.
+     *
+     * @return false if the input reaches the end.
+     * @throws IOException
+     */
+    private boolean fill() throws IOException {
+        int size;
+        while ((size = reader.read(input)) == 0) {
         }
+        inputIndex = 0;
+        inputSize = Math.max(0, size);
+        return size != -1;
+    }
 
-        for (; 0 <= index && isDeletable(output.charAt(index), includeLine); index--) {
-            output.deleteCharAt(index);
+    /**
+     * Write the character.
+     *
+     * @param c
+     * @throws IOException
+     */
+    private void write(char c) throws IOException {
+        if (outputSize == output.length) {
+            flush();
         }
+        output[outputSize++] = c;
+
+        if (c != '\n') {
+            if (!isIdentifier(c)) {
+                word.setLength(0);
+            } else if (!isIdentifier(last)) {
+                word.setLength(0);
+                word.append(c);
+            } else {
+                word.append(c);
+            }
+            last = c;
+            division = false;
+        }
+        space = line = false;
+    }
+
+    /**
+     * Write the buffered output.
+     *
+     * @throws IOException
+     */
+    private void flush() throws IOException {
+        writer.write(output, 0, outputSize);
+        outputSize = 0;
     }
 
-    private boolean isDeletable(char c, boolean includeLine) {
-        return c == ' ' || c == '\t' || (includeLine && (c == '\r' || c == '\n'));
+    /**
+     * Write the pending line break if the last token can't be joined to the next line.
+     *
+     * @throws IOException
+     */
+    private void breakLine() throws IOException {
+        if (line && last != 0 && last != ';' && last != '{' && last != ',' && !(last == '/' && division)) {
+            write('\n');
+        }
     }
 
-    private boolean matcheForward(String text) {
-        int target = index + 1;
-        if (line.length() <= target) {
-            return false;
+    /**
+     * Write the pending whitespace which separates the next word from the last token.
+     *
+     * @throws IOException
+     */
+    private void separate() throws IOException {
+        if (line) {
+            breakLine();
+        } else if (space && last != 0 && !isOperator(last)) {
+            write(' ');
         }
-        return line.subSequence(target, target + text.length()).equals(text);
     }
 
-    private boolean escaped() {
-        int count = 0;
-        int index = output.length() - 1;
-        while (output.charAt(index) == '\\') {
-            index--;
-            count++;
+    /**
+     * Test whether the regular expression literal can start at the current position.
+     *
+     * @return
+     */
+    private boolean acceptRegex() {
+        if (last == 0) {
+            return true;
+        }
+        if (isIdentifier(last)) {
+            return KEYWORDS.contains(word.toString());
         }
-        return count % 2 == 1;
+
+        return switch (last) {
+        case ')', ']', '\'', '"', '`' -> false;
+        case '/' -> division;
+        default -> true;
+        };
+    }
+
+    /**
+     * Test whether the specified character can be a part of identifier or number.
+     *
+     * @param c
+     * @return
+     */
+    private static boolean isIdentifier(char c) {
+        return c != 0 && (Character.isLetterOrDigit(c) || c == '$' || c == '_' || c == '\\' || 127 < c);
+    }
+
+    /**
+     * Test whether the specified character is the operator (or punctuator) which never requires the
+     * surrounding whitespaces.
+     *
+     * @param c
+     * @return
+     */
+    private static boolean isOperator(char c) {
+        return switch (c) {
+        case '(', ')', '{', '}', '[', ']', '+', '-', '*', '%', '=', '>', '<', '|', '&', '^', '~', '!', '?', ';', ':', '.', ',', '/' -> true;
+        default -> false;
+        };
     }
 
+    /**
+     * Minify the specified code.
+     *
+     * @param code
+     * @return
+     */
     public static String minify(String code) {
         StringWriter writer = new StringWriter();
-        new Minify(new BufferedReader(new StringReader(code)), writer);
+        minify(new StringReader(code), writer);
         return writer.toString();
     }
 
+    /**
+     * Minify the code from the specified source to the specified destination. Both streams are
+     * not closed.
+     *
+     * @param reader The input source.
+     * @param writer The output destination.
+     */
+    public static void minify(Reader reader, Writer writer) {
+        try {
+            new Minify(reader, writer).run();
+            writer.flush();
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
     public static void minify(String inputFile, String outputFile) {
         minify(Locator.file(inputFile), Locator.file(outputFile));
     }
 
     public static void minify(File input, File output) {
-        new Minify(input.newBufferedReader(), output.newBufferedWriter());
+        try (Reader reader = input.newBufferedReader(); Writer writer = output.newBufferedWriter()) {
+            minify(reader, writer);
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
     }
 
     public static void main(String[] args) {
@@ -115,14 +290,14 @@ public class Minify {
     /**
      * The lexical context.
      */
-    private class Context {
+    private abstract class Context {
 
         /** The parent context. */
         private Context parent;
 
         /**
          * Start new {@link Context}.
-         * 
+         *
          * @param context
          */
         protected final void start(Context context) {
@@ -137,51 +312,119 @@ public class Minify {
             current = current.parent;
         }
 
-        void text(char c) {
+        /**
+         * Process the character.
+         *
+         * @param c
+         * @throws IOException
+         */
+        abstract void text(char c) throws IOException;
+    }
+
+    /**
+     * {@link Context} for the code.
+     */
+    private class Code extends Context {
+
+        /** This code is the embedded expression in template literal. */
+        private final boolean expression;
+
+        /** The depth of braces in the embedded expression. */
+        private int depth;
+
+        /**
+         * @param expression
+         */
+        private Code(boolean expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        void text(char c) throws IOException {
             switch (c) {
-            case '"':
-                trimBackward();
-                output.append(c);
-                start(new DoubleStringLiteral());
+            case '\n':
+                line = true;
                 break;
 
+            case ' ':
+            case '\t':
+            case '\f':
+            case '\u000B':
+            case '\uFEFF':
+                space = true;
+                break;
+
+            case '"':
             case '\'':
-                trimBackward();
-                output.append(c);
-                start(new SingleStringLiteral());
+                breakLine();
+                write(c);
+                start(new StringLiteral(c));
+                break;
+
+            case '`':
+                // "a\n`b`" must not be joined into the tagged template
+                breakLine();
+                write(c);
+                start(new TemplateLiteral());
                 break;
 
             case '/':
-                if (matcheForward("*")) {
-                    trimBackward();
+                int next = peek();
+                if (next == '*') {
+                    read();
                     start(new BlockComment());
-                    break;
-                } else if (matcheForward("/")) {
-                    trimBackward();
+                } else if (next == '/') {
+                    read();
                     start(new LineComment());
-                    break;
+                } else if (acceptRegex()) {
+                    breakLine();
+                    write(c);
+                    start(new RegexLiteral());
                 } else {
-                    trimBackward();
-                    output.append(c);
-                    trimForward();
-                    break;
+                    breakLine();
+                    write(c);
+                    division = true;
                 }
+                break;
 
-            case ' ':
-            case '\t':
-                if (output.length() != 0 && output.charAt(output.length() - 1) != '\n') {
-                    output.append(c);
+            case '+':
+            case '-':
+                // keep "a + +b" and "a\n++b"
+                if (line && peek() == c) {
+                    breakLine();
+                } else if ((space || line) && last == c) {
+                    write(' ');
                 }
+                write(c);
                 break;
 
-            case '(':
-            case ')':
             case '{':
+                depth++;
+                breakLine();
+                write(c);
+                break;
+
             case '}':
+                write(c);
+                if (expression && depth-- == 0) {
+                    end();
+                }
+                break;
+
+            case '(':
             case '[':
+            case '!':
+            case '~':
+                // the token which can start the statement keeps the line break for ASI
+                breakLine();
+                write(c);
+                break;
+
+            case ')':
             case ']':
-            case '+':
-            case '-':
             case '*':
             case '%':
             case '=':
@@ -190,45 +433,17 @@ public class Minify {
             case '|':
             case '&':
             case '^':
-            case '~':
-            case '!':
             case '?':
-            case '`':
             case ';':
             case ':':
             case '.':
             case ',':
-                trimBackward(true);
-                output.append(c);
-                trimForward();
-                break;
-
-            default:
-                output.append(c);
-                break;
-            }
-        }
-
-        void startLine() {
-            line = line.stripLeading();
-        }
-
-        void endLine() {
-            if (output.length() == 0) {
-                return;
-            }
-
-            trimBackward();
-
-            switch (output.charAt(output.length() - 1)) {
-            case ';':
-            case '{':
-            case ',':
-            case '/':
+                write(c);
                 break;
 
             default:
-                output.append('\n');
+                separate();
+                write(c);
                 break;
             }
         }
@@ -239,13 +454,15 @@ public class Minify {
      */
     private class LineComment extends Context {
 
+        /**
+         * {@inheritDoc}
+         */
         @Override
-        void text(char c) {
-        }
-
-        @Override
-        void endLine() {
-            end();
+        void text(char c) throws IOException {
+            if (c == '\n') {
+                end();
+                current.text(c);
+            }
         }
     }
 
@@ -254,69 +471,121 @@ public class Minify {
      */
     private class BlockComment extends Context {
 
+        /** The previous character is asterisk. */
+        private boolean star;
+
+        /** The line break is found in this comment. */
+        private boolean multiline;
+
+        /**
+         * {@inheritDoc}
+         */
         @Override
         void text(char c) {
-            if (c == '/' && line.charAt(index - 1) == '*') {
+            if (c == '/' && star) {
+                // the comment separates tokens as whitespace (and as line break if it has one)
+                space = true;
+                line |= multiline;
                 end();
             }
-        }
-
-        @Override
-        void startLine() {
-        }
-
-        @Override
-        void endLine() {
+            star = c == '*';
+            multiline |= c == '\n';
         }
     }
 
     /**
-     * {@link Context} for the string litereal.
+     * {@link Context} for the string literal.
      */
-    private class SingleStringLiteral extends Context {
+    private class StringLiteral extends Context {
 
-        @Override
-        void text(char c) {
-            if (c == '\'' && !escaped()) {
-                output.append(c);
-                end();
-            } else {
-                output.append(c);
-            }
-        }
+        /** The quote character. */
+        private final char quote;
 
-        @Override
-        void startLine() {
+        /** The previous character is the escape. */
+        private boolean escaped;
+
+        /**
+         * @param quote
+         */
+        private StringLiteral(char quote) {
+            this.quote = quote;
         }
 
+        /**
+         * {@inheritDoc}
+         */
         @Override
-        void endLine() {
-            output.append('\n');
+        void text(char c) throws IOException {
+            write(c);
+
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == quote) {
+                end();
+            }
         }
     }
 
     /**
-     * {@link Context} for the string litereal.
+     * {@link Context} for the template literal.
      */
-    private class DoubleStringLiteral extends Context {
+    private class TemplateLiteral extends Context {
 
+        /** The previous character is the escape. */
+        private boolean escaped;
+
+        /**
+         * {@inheritDoc}
+         */
         @Override
-        void text(char c) {
-            if (c == '"' && !escaped()) {
-                output.append(c);
+        void text(char c) throws IOException {
+            write(c);
+
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '`') {
                 end();
-            } else {
-                output.append(c);
+            } else if (c == '$' && peek() == '{') {
+                write((char) read());
+                start(new Code(true));
             }
         }
+    }
 
-        @Override
-        void startLine() {
-        }
+    /**
+     * {@link Context} for the regular expression literal.
+     */
+    private class RegexLiteral extends Context {
+
+        /** The previous character is the escape. */
+        private boolean escaped;
 
+        /** The current position is in the character class. */
+        private boolean characterClass;
+
+        /**
+         * {@inheritDoc}
+         */
         @Override
-        void endLine() {
-            output.append('\n');
+        void text(char c) throws IOException {
+            write(c);
+
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '[') {
+                characterClass = true;
+            } else if (c == ']') {
+                characterClass = false;
+            } else if (c == '/' && !characterClass) {
+                // the following flags are written as identifier
+                end();
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.web;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javadng.BuildCache;
+import kiss.I;
+import kiss.Variable;
+
+/**
+ * On-disk cache for the remote resources (external document index, highlighting grammar, etc). The
+ * cached resource is reused while it is fresh, and is revalidated by ETag or Last-Modified after
+ * the TTL. The missing resource (404 or 410) is also cached with the same TTL, so the fallback to
+ * another resource doesn't access the network every time. If the remote server is unreachable,
+ * the stale resource is used as it is. In offline
+ * mode, no network access occurs at all, so the cache can be pre-seeded for the air-gapped build.
+ * <p>
+ * The default cache directory is "~/.javadng/cache", which can be changed by the system property
+ * "javadng.cache". The offline mode is enabled by the system property "javadng.offline".
+ */
+public class WebCache {
+
+    /** The default cache. */
+    private static WebCache global;
+
+    /** The lock for each cached file, shared by all caches over the same directory. */
+    private static final Map<Path, Object> locks = new ConcurrentHashMap();
+
+    /** The cache directory. */
+    private final Path directory;
+
+    /** The time to live of the cached resource. */
+    private final Duration ttl;
+
+    /** The offline mode. */
+    private final boolean offline;
+
+    /** The http client. (lazy) */
+    private HttpClient client;
+
+    /**
+     * @param directory The cache directory.
+     * @param ttl The time to live of the cached resource.
+     * @param offline The offline mode.
+     */
+    public WebCache(Path directory, Duration ttl, boolean offline) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.offline = offline;
+    }
+
+    /**
+     * Get the default cache.
+     * 
+     * @return
+     */
+    public static synchronized WebCache global() {
+        if (global == null) {
+            String path = System.getProperty("javadng.cache");
+            Path directory = path == null ? Path.of(System.getProperty("user.home"), ".javadng", "cache") : Path.of(path);
+
+            global = new WebCache(directory, Duration.ofDays(7), Boolean.getBoolean("javadng.offline"));
+        }
+        return global;
+    }
+
+    /**
+     * Create the cache which shares the directory and the offline mode with this cache, but has
+     * the different time to live.
+     * 
+     * @param ttl The time to live of the cached resource.
+     * @return
+     */
+    public WebCache ttl(Duration ttl) {
+        return new WebCache(directory, ttl, offline);
+    }
+
+    /**
+     * Determines if this cache never accesses the network.
+     * 
+     * @return
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Read the specified resource as text.
+     * 
+     * @param uri A resource location.
+     * @return The contents, or empty if the resource is not available.
+     */
+    public Variable<String> text(String uri) {
+        return file(uri).map(file -> {
+            try {
+                return Files.readString(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        });
+    }
+
+    /**
+     * Locate the cached file of the specified resource. The resource is downloaded (or
+     * revalidated) if needed.
+     * 
+     * @param uri A resource location.
+     * @return The cached file, or empty if the resource is not available.
+     */
+    public Variable<Path> file(String uri) {
+        String key = BuildCache.hash(uri);
+        Path body = directory.resolve(key);
+        Path meta = directory.resolve(key + ".meta");
+
+        synchronized (lock(body)) {
+            Properties properties = load(meta);
+            boolean cached = Files.isRegularFile(body);
+
+            if (cached && (offline || !isExpired(properties))) {
+                return Variable.of(body);
+            }
+
+            // the missing resource is also cached while it is fresh
+            if (!cached && properties.containsKey("missing") && (offline || !isExpired(properties))) {
+                return Variable.empty();
+            }
+
+            if (offline) {
+                return Variable.empty();
+            }
+
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET();
+                if (cached) {
+                    String etag = properties.getProperty("etag");
+                    String modified = properties.getProperty("last-modified");
+                    if (etag != null) request.header("If-None-Match", etag);
+                    if (modified != null) request.header("If-Modified-Since", modified);
+                }
+
+                HttpResponse<byte[]> response = send(request.build());
+                int status = response.statusCode();
+
+                if (status == 304 && cached) {
+                    properties.setProperty("fetched", String.valueOf(System.currentTimeMillis()));
+                    store(meta, properties);
+                    return Variable.of(body);
+                } else if (200 <= status && status < 300) {
+                    Properties updated = new Properties();
+                    updated.setProperty("uri", uri);
+                    updated.setProperty("fetched", String.valueOf(System.currentTimeMillis()));
+                    response.headers().firstValue("ETag").ifPresent(value -> updated.setProperty("etag", value));
+                    response.headers().firstValue("Last-Modified").ifPresent(value -> updated.setProperty("last-modified", value));
+
+                    write(body, response.body());
+                    store(meta, updated);
+                    return Variable.of(body);
+                } else if (status == 404 || status == 410) {
+                    Properties missing = new Properties();
+                    missing.setProperty("uri", uri);
+                    missing.setProperty("fetched", String.valueOf(System.currentTimeMillis()));
+                    missing.setProperty("missing", String.valueOf(status));
+
+                    Files.deleteIfExists(body);
+                    store(meta, missing);
+                    return Variable.empty();
+                }
+            } catch (IOException e) {
+                // fall through to the stale resource
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // use the stale resource if the remote server is unavailable
+            return cached ? Variable.of(body) : Variable.empty();
+        }
+    }
+
+    /**
+     * Pre-seed the cache with the specified local file. The seeded resource is treated as the
+     * freshly downloaded one.
+     * 
+     * @param uri A resource location.
+     * @param file A local file to seed.
+     */
+    public void seed(String uri, Path file) {
+        String key = BuildCache.hash(uri);
+
+        synchronized (lock(directory.resolve(key))) {
+            try {
+                Properties properties = new Properties();
+                properties.setProperty("uri", uri);
+                properties.setProperty("fetched", String.valueOf(System.currentTimeMillis()));
+
+                write(directory.resolve(key), Files.readAllBytes(file));
+                store(directory.resolve(key + ".meta"), properties);
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        }
+    }
+
+    /**
+     * Get the lock of the specified cached file. The caches which are created by
+     * {@link #ttl(Duration)} (or independently) over the same directory never fetch and write the
+     * same file at once.
+     * 
+     * @param file A cached file.
+     * @return
+     */
+    private static Object lock(Path file) {
+        return locks.computeIfAbsent(file.toAbsolutePath().normalize(), k -> new Object());
+    }
+
+    /**
+     * Send the request with retry.
+     * 
+     * @param request
+     * @return
+     */
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        synchronized (this) {
+            if (client == null) {
+                client = HttpClient.newBuilder().followRedirects(Redirect.NORMAL).connectTimeout(Duration.ofSeconds(10)).build();
+            }
+        }
+
+        IOException error = null;
+        for (int i = 0; i < 3; i++) {
+            try {
+                return client.send(request, BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                error = e;
+                Thread.sleep(200L << i);
+            }
+        }
+        throw error;
+    }
+
+    /**
+     * Determines if the cached resource must be revalidated.
+     * 
+     * @param properties
+     * @return
+     */
+    private boolean isExpired(Properties properties) {
+        try {
+            long fetched = Long.parseLong(properties.getProperty("fetched", "0"));
+            return fetched + ttl.toMillis() < System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Write the file atomically.
+     * 
+     * @param file
+     * @param bytes
+     */
+    private void write(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Load the metadata.
+     * 
+     * @param file
+     * @return
+     */
+    private Properties load(Path file) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                // broken metadata, revalidate it
+                properties.clear();
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Store the metadata.
+     * 
+     * @param file
+     * @param properties
+     */
+    private void store(Path file, Properties properties) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+    }
+}
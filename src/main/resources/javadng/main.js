@@ -14,7 +14,7 @@ import hljs from "./highlight.js"
 // User Settings
 // =====================================================
 const
-	prefix = import.meta.url.substring(location.protocol.length + location.host.length + 2, import.meta.url.length - 7),
+	prefix = import.meta.url.substring(location.protocol.length + location.host.length + 2, import.meta.url.lastIndexOf("/") + 1),
 	user = JSON.parse(localStorage.getItem("user")) || {"theme": "light"},
 	save = () => localStorage.setItem("user", JSON.stringify(user))
 hljs.configure({ignoreUnescapedHTML: true})
@@ -44,8 +44,8 @@ const navi = new IntersectionObserver(e => {
 // =====================================================
 // Lightning Fast Viewer
 // =====================================================
-function FlashMan({ paged, cacheSize = 20, preload = "mouseover", preview = "section", ...previews }) {
-	var path = location.pathname, hash = location.hash;
+function FlashMan({ paged, cacheBytes = 8 * 1024 * 1024, preload = "mouseover", preview = "section", ...previews }) {
+	var path = location.pathname, hash = location.hash, bytes = 0;
 	const cache = new Map(), loading = new Set(), observer = new IntersectionObserver(set => {
 		set.filter(x => x.isIntersecting && !x.target.init && (x.target.init = true)).forEach(x => {
 			for (let q in previews) x.target.querySelectorAll(q).forEach(e => previews[q](e))
@@ -66,24 +66,52 @@ function FlashMan({ paged, cacheSize = 20, preload = "mouseover", preview = "sec
 		}
 	}
 
+	// Retrieves the cached page and marks it as the most recently used one.
+	function get(p) {
+		const html = cache.get(p)
+		if (html !== undefined) {
+			cache.delete(p)
+			cache.set(p, html)
+		}
+		return html
+	}
+
+	// Stores the page, then evicts the least recently used pages (except for the current page) until the cache fits in the budget.
+	function put(p, html) {
+		discard(p)
+		cache.set(p, html)
+		bytes += html.length * 2
+		for (const key of cache.keys()) {
+			if (bytes <= cacheBytes) break
+			if (key != path) discard(key)
+		}
+	}
+
+	// Removes the page from the cache.
+	function discard(p) {
+		if (cache.has(p)) {
+			bytes -= cache.get(p).length * 2
+			cache.delete(p)
+		}
+	}
+
 	// Reads the contents of the specified path into the cache. If it is already cached or currently being read, it will be ignored.
 	function load(p, poped, same) {
 		if (cache.has(p)) {
-			if (path == p) update(cache.get(p), poped, same)
+			if (path == p) update(get(p), poped, same)
 		} else if (!loading.has(p)) {
 			loading.add(p)
 			fetch(p)
 				.then(response => response.text())
 				.then(html => {
 					loading.delete(p)
-					cache.set(p, html)
+					put(p, html)
 					if (path == p) update(html, poped, same)
-					if (cacheSize < cache.size) cache.delete(cache.keys().next().value)
 				})
 		}
 	}
 
-	function update(text, poped, same) {
+	function update(text, poped, same, scroll) {
 		if (poped !== undefined || same !== undefined) $("article").add("fadeout")
 		setTimeout(() => {
 			if (text) {
@@ -92,9 +120,27 @@ function FlashMan({ paged, cacheSize = 20, preload = "mouseover", preview = "sec
 			}
 			paged();
 			$(preview).each(e => observer.observe(e));
-			hashed(poped, same)
+			if (scroll === undefined) hashed(poped, same)
+			else window.scrollTo({ top: scroll, left: 0, behavior: "instant" })
 			$("article").remove("fadeout")
-		}, 300)
+		}, scroll === undefined ? 300 : 0)
+	}
+
+	// Discards the changed pages (relative paths from the site root) and refreshes the current page in place if it was changed.
+	function refresh(paths) {
+		let current = false;
+		paths.map(p => new URL(p, document.baseURI).pathname).forEach(p => {
+			discard(p)
+			if (p == path || (p.endsWith("/index.html") && p.slice(0, -10) == path)) current = true
+		})
+		if (current) {
+			fetch(path)
+				.then(response => response.text())
+				.then(html => {
+					put(path, html)
+					update(html, undefined, undefined, window.scrollY)
+				})
+		}
 	}
 
 	// Scroll into view automatically when hash is changed
@@ -109,7 +155,7 @@ function FlashMan({ paged, cacheSize = 20, preload = "mouseover", preview = "sec
 
 	// Detect all URL changes
 	window.addEventListener("popstate", v => changed(true))
-	document.addEventListener("DOMContentLoaded", v => { update(); cache.set(location.pathname, document.documentElement.outerHTML) })
+	document.addEventListener("DOMContentLoaded", v => { update(); put(location.pathname, document.documentElement.outerHTML) })
 	document.addEventListener("click", v => {
 		let e = v.target.closest("a");
 		if (e != null && location.origin == e.origin) {
@@ -129,9 +175,11 @@ function FlashMan({ paged, cacheSize = 20, preload = "mouseover", preview = "sec
 		let e = v.target, key = e.pathname;
 		if (e.tagName === "A" && e.origin == location.origin && key != location.pathname && !cache.has(key)) load(key)
 	})
+
+	return { refresh }
 }
 
-FlashMan({
+const flashman = FlashMan({
 	paged: () => {
 		$("#APINavi").each(e => e.dataset.hide = !location.pathname.startsWith(prefix + "api/"));
 		$("#DocNavi").each(e => e.dataset.hide = !location.pathname.startsWith(prefix + "doc/"));
@@ -171,6 +219,67 @@ FlashMan({
 	}
 });
 
+// =====================================================
+// Symbol Search
+// =====================================================
+function SymbolSearch(base, limit = 50) {
+	const shards = [], manifest = fetch(base + "index.json").then(response => response.json()).catch(e => ({ size: 0, shards: [] }))
+
+	// Reads and decodes the specified shard only once.
+	function load(i) {
+		return shards[i] || (shards[i] = fetch(base + i + ".json").then(response => response.json()).then(shard => {
+			let previous = ""
+			return {
+				keys: shard.keys.split("\n").map(key => previous = previous.substring(0, parseInt(key[0], 36)) + key.substring(1)),
+				symbols: shard.symbols.split("\n").map(line => {
+					const [kind, name, owner, anchor] = line.split("\t")
+					return { kind, name, owner, anchor, path: anchor ? "api/" + owner + ".html#" + anchor : "api/" + owner + "." + name + ".html" }
+				})
+			}
+		}))
+	}
+
+	// Finds the first index whose key is not less than the specified key.
+	function lower(keys, key) {
+		let low = 0, high = keys.length
+		while (low < high) {
+			const middle = (low + high) >>> 1
+			if (keys[middle] < key) low = middle + 1
+			else high = middle
+		}
+		return low
+	}
+
+	// Finds the symbols by the query like "mapTo", "gBN" (camel-case humps) or "I#sig" (owner and member).
+	async function find(query) {
+		query = query.trim()
+		let separator = Math.max(query.lastIndexOf("#"), query.lastIndexOf(".")), owner = query.substring(0, separator).toLowerCase(), member = query.substring(separator + 1)
+		if (member == "") {
+			member = owner.substring(owner.lastIndexOf(".") + 1)
+			owner = ""
+		}
+		if (member == "") return []
+
+		const key = member.toLowerCase(), index = await manifest, found = new Map()
+		for (let i = Math.max(0, lower(index.shards, key) - 1); i < index.shards.length && index.shards[i] <= key + "\uffff"; i++) {
+			const shard = await load(i)
+			for (let k = lower(shard.keys, key); k < shard.keys.length && found.size < limit * 20 && shard.keys[k].startsWith(key); k++) {
+				const symbol = shard.symbols[k], o = symbol.owner.toLowerCase()
+				if (owner == "" || o == owner || o.endsWith("." + owner) || o.substring(o.lastIndexOf(".") + 1).startsWith(owner)) {
+					found.set(symbol.path, symbol)
+				}
+			}
+		}
+
+		// exact name, case-sensitive prefix, case-insensitive prefix, camel-case humps
+		const rank = symbol => symbol.name == member ? 0 : symbol.name.startsWith(member) ? 1 : symbol.name.toLowerCase().startsWith(key) ? 2 : 3
+		return [...found.values()].sort((a, b) => rank(a) - rank(b) || a.name.length - b.name.length || a.name.localeCompare(b.name)).slice(0, limit)
+	}
+
+	return { find }
+}
+
+const search = SymbolSearch(prefix + "search/")
 
 /**
  * Selection UI
@@ -272,51 +381,222 @@ class Select extends $ {
 }
 
 /**
- * Selection UI
+ * Virtualized API navigator. Only the rows in view are rendered, and they are reused while scrolling.
  */
 class APITree extends $ {
 
+	/** The kinds of type. */
+	kinds = ['Interface', 'Functional', 'AbstractClass', 'Class', 'Enum', 'Annotation', 'Exception']
+
+	/** The loaded types. */
+	types = []
+
+	/** The precomputed lower-cased full names of the loaded types. */
+	keys = []
+
+	/** The kind index of the loaded types. */
+	codes = new Uint8Array(256)
+
+	/** The visible rows. The negative value is the package (-index - 1), others are the type index. */
+	rows = new Int32Array(256)
+
+	/** The number of visible rows. */
+	size = 0
+
+	/** The height of row. (measured at the first rendering) */
+	height = 0
+
+	/** The reusable row elements. */
+	pool = []
+
 	/**
 	 * Initialize by user configuration.
 	 */
 	constructor(items) {
 		super("<o-tree>")
 
-		this.moduleFilter = new Select({ placeholder: "Select Module", model: root.modules })
-		this.packageFilter = new Select({ placeholder: "Select Package", model: root.packages })
-		this.typeFilter = new Select({ placeholder: "Select Type", multiple: true, model: ['Interface', 'Functional', 'AbstractClass', 'Class', 'Enum', 'Annotation', 'Exception'] })
+		this.packs = items.packages.map(pack => Object.assign(pack, { open: false, matched: true, loading: null, members: [] }))
+		this.moduleFilter = new Select({ placeholder: "Select Module", model: items.modules })
+		this.packageFilter = new Select({ placeholder: "Select Package", model: this.packs.map(pack => pack.name) })
+		this.typeFilter = new Select({ placeholder: "Select Type", multiple: true, model: this.kinds })
 		this.nameFilter = $("<input>").id("NameFilter").placeholder("Search by Name")
 
-		this.id("APINavi").change(e => this.update()).input(e => this.update())
+		this.id("APINavi").change(e => this.update()).input(e => {
+			clearTimeout(this.delay)
+			this.delay = setTimeout(() => this.update(), 120)
+		})
 			.append(this.moduleFilter)
 			.append(this.packageFilter)
 			.append(this.typeFilter)
 			.append(this.nameFilter)
-			.make("div").add("tree")
-			.make("dl", items.packages, (pack, dl) => {
-				dl.id(pack).make("dt").click(e => dl.toggle("show"))
-					.make("code").text(pack)
-					
-				dl.make("dd", items.types.filter(type => type.packageName == pack), (type, dd) => {
-					dd.add(type.type)
-						.make("code").make("a").href(prefix + "api/" + type.packageName + "." + type.name + ".html").text(type.name)
-				})
-			})
+			.append(this.results = $("<ol>").add("results"))
+			.append(this.view = $("<div>").add("tree").scroll(e => this.schedule()))
+		this.space = this.view.make("div").add("space")
+		this.list = this.view.make("div").add("rows").click(e => this.toggle(this.packs[-e.target.closest(".pack").row - 1]), { where: ".pack" })
+
+		this.moduleFilter.show(items.modules.length != 0)
+		this.results.show(false)
+		this.filter()
+
+		// render again when the navigator is shown or resized
+		new ResizeObserver(() => this.schedule()).observe(this.view.nodes[0])
+	}
+
+	/**
+	 * Open or close the specified package.
+	 */
+	toggle(pack) {
+		pack.open = !pack.open
+		this.load(pack)
+		this.filter()
+	}
+
+	/**
+	 * Reads the types in the specified package only once, and computes their keys in advance.
+	 */
+	load(pack) {
+		return pack.loading ??= fetch(prefix + "package/" + pack.name + ".json").then(response => response.json()).then(shard => {
+			for (const type of shard.types) {
+				const index = this.types.length
+				if (this.codes.length <= index) this.codes = grow(this.codes, Uint8Array)
+
+				this.types.push(type)
+				this.keys.push((type.packageName + "." + type.name).toLowerCase())
+				this.codes[index] = this.kinds.indexOf(type.type)
+				pack.members.push(index)
+			}
+			this.filter()
+		})
 	}
 
+	/**
+	 * Applies the current filters.
+	 */
 	update() {
-		let filter = item => {
-			if (this.typeFilter.selected.size != 0 && !this.typeFilter.selected.has(item.type)) return false
-			if (this.packageFilter.selected.size != 0 && !this.packageFilter.selected.has(item.packageName)) return false
-			if (this.nameFilter.value() != "" && (item.packageName + "." + item.name).toLowerCase().indexOf(this.nameFilter.value().toLowerCase()) == -1) return false
-			return true
+		const modules = this.moduleFilter.selected, packages = this.packageFilter.selected, types = this.typeFilter.selected, query = this.nameFilter.value(), name = query.toLowerCase()
+		this.active = modules.size != 0 || packages.size != 0 || types.size != 0 || name != ""
+		this.mask = this.kinds.reduce((mask, kind, index) => types.has(kind) ? mask | 1 << index : mask, 0)
+		this.name = name
+
+		// the package summary decides whether its contents are required or not, the name is
+		// matched over the precomputed keys of all types in the package (see filter)
+		for (const pack of this.packs) {
+			pack.matched = !this.active || (modules.size == 0 || modules.has(pack.moduleName))
+				&& (packages.size == 0 || packages.has(pack.name))
+				&& (types.size == 0 || pack.kinds.some(kind => types.has(kind)))
+
+			if (this.active && pack.matched) this.load(pack)
 		}
+		this.filter()
+
+		// the symbol search lists up the members, discard the results of the outdated query
+		const id = this.searching = (this.searching || 0) + 1
+		search.find(query).then(symbols => {
+			if (id != this.searching) return
+
+			this.results.empty().make("li", symbols, (symbol, li) => {
+				li.add(symbol.kind).make("code").make("a").href(prefix + symbol.path).text(symbol.anchor ? symbol.owner.substring(symbol.owner.lastIndexOf(".") + 1) + "#" + symbol.name : symbol.name)
+			})
+			this.results.show(symbols.length != 0)
+		})
+	}
 
-		this.find("dl").set({ expand: this.typeFilter.selected.size != 0 || this.packageFilter.selected.size != 0 || this.nameFilter.value() != "" })
-		this.find("dd").each(e => {
-			$(e).show(filter(e.model))
+	/**
+	 * Collects the visible rows over the precomputed keys, then renders them.
+	 */
+	filter() {
+		const capacity = this.packs.length + this.types.length
+		if (this.rows.length < capacity) this.rows = grow(this.rows, Int32Array, capacity)
+
+		let size = 0
+		this.packs.forEach((pack, index) => {
+			if (!pack.matched) return
+			const head = size
+			this.rows[size++] = -index - 1
+
+			if (this.active || pack.open) {
+				for (const type of pack.members) {
+					if (this.mask != 0 && (this.mask & 1 << this.codes[type]) == 0) continue
+					if (this.name != "" && !this.keys[type].includes(this.name)) continue
+					this.rows[size++] = type
+				}
+
+				// the package which has no matched type (or is still loading) is hidden while filtering by name or kind
+				if (this.active && (this.name != "" || this.mask != 0) && size == head + 1) size = head
+			}
 		})
+		this.size = size
+		this.schedule()
+	}
+
+	/**
+	 * Renders at the next frame only once.
+	 */
+	schedule() {
+		if (!this.scheduled) {
+			this.scheduled = true
+			requestAnimationFrame(() => {
+				this.scheduled = false
+				this.render()
+			})
+		}
+	}
+
+	/**
+	 * Renders the rows in view only. The row element is updated only when its content is changed.
+	 */
+	render() {
+		const view = this.view.nodes[0]
+		if (this.height == 0) {
+			this.height = this.row(0).offsetHeight
+			if (this.height == 0) return // hidden
+		}
+
+		const first = Math.floor(view.scrollTop / this.height), count = Math.ceil(view.clientHeight / this.height) + 1
+		this.space.nodes[0].style.height = this.size * this.height + "px"
+		this.list.nodes[0].style.transform = `translateY(${first * this.height}px)`
+
+		for (let i = 0; i < Math.max(count, this.pool.length); i++) {
+			const e = this.row(i), index = first + i
+
+			if (i < count && index < this.size) {
+				const row = this.rows[index], pack = row < 0 ? this.packs[-row - 1] : null, state = row + ":" + (pack ? pack.open || this.active : "")
+				if (e.state !== state) {
+					e.state = state
+					e.row = row
+					e.replaceChildren()
+					if (pack) {
+						e.className = "pack" + (pack.open || this.active ? " open" : "")
+						$(e).make("code").text(pack.name)
+					} else {
+						const type = this.types[row]
+						e.className = "type " + type.type
+						$(e).make("code").make("a").href(prefix + "api/" + type.packageName + "." + type.name + ".html").text(type.name)
+					}
+				}
+				e.style.display = ""
+			} else {
+				e.style.display = "none"
+			}
+		}
 	}
+
+	/**
+	 * Retrieves the reusable row element.
+	 */
+	row(index) {
+		while (this.pool.length <= index) this.pool.push(this.list.make("div").nodes[0])
+		return this.pool[index]
+	}
+}
+
+/**
+ * Creates the larger typed array which has the same elements.
+ */
+function grow(array, type, capacity = 0) {
+	const grown = new type(Math.max(array.length * 2, capacity))
+	grown.set(array)
+	return grown
 }
 
 $("body>nav")
@@ -334,9 +614,19 @@ $("body>nav")
 			})
 	})
 
+// =====================================================
+// Offline Cache
+// =====================================================
+const worker = document.querySelector("meta[name=service-worker]")
+if (worker && location.hostname != "localhost" && "serviceWorker" in navigator) navigator.serviceWorker.register(prefix + worker.content)
+
 // =====================================================
 // Live Reload
 // =====================================================
-if (location.hostname == "localhost") setInterval(() => fetch("http://localhost:9321/live").then(res => {
-	if (res.status == 200) location.reload();
-}), 3000);
\ No newline at end of file
+if (location.hostname == "localhost") new EventSource("http://localhost:9321/live").addEventListener("change", e => {
+	const paths = JSON.parse(e.data);
+
+	// styles, scripts and the shared model (root.js) require the full reload, but the pages are swapped in place
+	if (paths.some(p => !p.endsWith(".html"))) location.reload();
+	else flashman.refresh(paths);
+});
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+
+// =====================================================
+// Offline Cache
+// =====================================================
+// The "version" (the hash of manifest) and "shell" (the files to precache) are declared by SiteBuilder.
+const
+	base = new URL("./", location).pathname,
+	name = "javadng",
+	limit = 200
+
+// The content hashes of the cached site. (path - hash)
+let manifest = caches.open(name).then(cache => cache.match(base + "offline.json")).then(response => response ? response.json() : {})
+
+// Each file is cached by its content hash, so the changed file never hits the old entry.
+const key = (path, hash) => base + path + "?" + hash
+
+self.addEventListener("install", e => e.waitUntil((async () => {
+	const cache = await caches.open(name), response = await fetch(base + "offline.json", { cache: "no-store" }), hashes = await response.clone().json()
+
+	await cache.put(base + "offline.json", response)
+	await Promise.all(shell.map(async path => {
+		if (!await cache.match(key(path, hashes[path]))) await cache.put(key(path, hashes[path]), await fetch(base + path, { cache: "no-store" }))
+	}))
+	await self.skipWaiting()
+})()))
+
+self.addEventListener("activate", e => e.waitUntil((async () => {
+	const cache = await caches.open(name), hashes = await (await cache.match(base + "offline.json")).json()
+
+	// discard the entries which are changed or removed from this site
+	for (const request of await cache.keys()) {
+		const url = new URL(request.url), path = url.pathname.substring(base.length)
+		if (url.search && hashes[path] != url.search.substring(1)) await cache.delete(request)
+	}
+	manifest = Promise.resolve(hashes)
+	await self.clients.claim()
+})()))
+
+self.addEventListener("fetch", e => {
+	const url = new URL(e.request.url)
+	if (e.request.method != "GET" || url.origin != location.origin || !url.pathname.startsWith(base)) return
+
+	let path = url.pathname.substring(base.length)
+	if (path == "" || path.endsWith("/")) path += "index.html"
+
+	e.respondWith(manifest.then(async hashes => {
+		const hash = hashes[path]
+		if (!hash) return fetch(e.request)
+
+		const cache = await caches.open(name), cached = await cache.match(key(path, hash))
+		if (cached) {
+			// the cache keys are listed in insertion order, so put the visited page again to evict the least recently used one
+			if (path.endsWith(".html")) e.waitUntil(cache.delete(key(path, hash)).then(() => cache.put(key(path, hash), cached.clone())))
+			return cached
+		}
+
+		const response = await fetch(e.request)
+		if (response.ok) {
+			await cache.put(key(path, hash), response.clone())
+
+			// keep only the recently visited pages (the oldest key is the least recently used)
+			if (path.endsWith(".html")) {
+				const pages = (await cache.keys()).filter(request => request.url.includes(".html?") && !shell.some(item => request.url.includes(base + item + "?")))
+				for (let i = 0; i < pages.length - limit; i++) await cache.delete(pages[i])
+			}
+		}
+		return response
+	}))
+})
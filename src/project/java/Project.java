@@ -26,6 +26,8 @@ public class Project extends bee.api.Project {
         require("com.github.javaparser", "javaparser-core");
         require("org.commonmark", "commonmark");
         require("org.commonmark", "commonmark-ext-gfm-tables");
+        require("org.openjdk.jmh", "jmh-core").atTest();
+        require("org.openjdk.jmh", "jmh-generator-annprocess").atTest();
 
         versionControlSystem("https://github.com/teletha/javadng");
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class BuildCacheTest {
+
+    @Test
+    void hash() {
+        assert BuildCache.hash("a", "b").equals(BuildCache.hash("a", "b"));
+        assert !BuildCache.hash("a", "b").equals(BuildCache.hash("ab"));
+        assert BuildCache.hash("a").length() == 32;
+    }
+
+    @Test
+    void fresh() throws Exception {
+        Path file = Files.createTempDirectory("cache").resolve("build.cache");
+
+        BuildCache cache = new BuildCache(file);
+        assert cache.isEmpty();
+        assert !cache.isFresh("api/A.html", "1");
+        cache.record("api/A.html", "1");
+        cache.record("api/B.html", "2");
+        cache.store();
+
+        cache = new BuildCache(file);
+        assert !cache.isEmpty();
+        assert cache.isFresh("api/A.html", "1");
+        assert !cache.isFresh("api/A.html", "changed");
+        assert !cache.isFresh("api/C.html", "1");
+        assert !cache.isFresh("api/A.html", null);
+    }
+
+    @Test
+    void stale() throws Exception {
+        Path file = Files.createTempDirectory("cache").resolve("build.cache");
+
+        BuildCache cache = new BuildCache(file);
+        cache.record("api/A.html", "1");
+        cache.record("api/B.html", "2");
+        cache.store();
+
+        cache = new BuildCache(file);
+        cache.record("api/A.html", "1");
+        assert cache.stale().equals(Set.of("api/B.html"));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SiteBuilderTest {
+
+    @Test
+    void stream() throws Exception {
+        Path root = Files.createTempDirectory("site");
+        SiteBuilder site = SiteBuilder.root(root);
+        site.buildHTML("inline.html", new Page(false));
+        site.buildHTML("stream.html", new Page(true));
+
+        // streamed components are indented as if they were declared inline
+        String inline = Files.readString(root.resolve("inline.html"));
+        String stream = Files.readString(root.resolve("stream.html"));
+        assert inline.equals(stream);
+        assert !stream.contains("javadng-stream");
+    }
+
+    @Test
+    void serviceWorker() throws Exception {
+        Path root = Files.createTempDirectory("site");
+        SiteBuilder site = SiteBuilder.root(root);
+        site.buildHTML("index.html", new Page(false));
+        site.buildHTML("api/A.html", new Page(true));
+        site.build("main.js", new ByteArrayInputStream("main".getBytes()));
+        site.build("note.txt", new ByteArrayInputStream("text".getBytes()));
+        site.build(".javadng/build.cache", new ByteArrayInputStream("cache".getBytes()));
+        site.buildServiceWorker("sw.js", new ByteArrayInputStream("// worker".getBytes()), "index.html", "main.js", "missing.js");
+
+        String manifest = Files.readString(root.resolve("offline.json"));
+        assert manifest.contains("\"index.html\": \"" + BuildCache.digest(root.resolve("index.html")) + "\"");
+        assert manifest.contains("\"api/A.html\"");
+        assert manifest.contains("\"main.js\"");
+        assert !manifest.contains("note.txt");
+        assert !manifest.contains("build.cache");
+        assert !manifest.contains("sw.js");
+
+        String worker = Files.readString(root.resolve("sw.js"));
+        assert worker.startsWith("const version = \"" + BuildCache.hash(manifest) + "\", shell = [\"index.html\", \"main.js\"];");
+        assert worker.endsWith("// worker");
+
+        // same contents, same version
+        site.buildServiceWorker("sw.js", new ByteArrayInputStream("// worker".getBytes()), "index.html", "main.js");
+        assert Files.readString(root.resolve("sw.js")).equals(worker);
+    }
+
+    @Test
+    void asset() throws Exception {
+        Path root = Files.createTempDirectory("site");
+        SiteBuilder site = SiteBuilder.root(root);
+        String hashed = site.buildAsset("main.css", "body {}");
+        assert hashed.matches("main\\.[0-9a-f]{8}\\.css");
+        assert site.asset("main.css").equals(hashed);
+        assert site.asset("unknown.css").equals("unknown.css");
+        assert Files.readString(root.resolve(hashed)).equals("body {}");
+
+        // same contents, same name
+        assert SiteBuilder.root(root).buildAsset("main.css", "body {}").equals(hashed);
+        assert !SiteBuilder.root(root).buildAsset("main.css", "body {color: red}").equals(hashed);
+        assert site.buildAsset("dir.x/file", "text").matches("dir\\.x/file\\.[0-9a-f]{8}");
+
+        site.buildAssetManifest("assets.json");
+        String manifest = Files.readString(root.resolve("assets.json"));
+        assert manifest.contains("\"main.css\": \"" + hashed + "\"");
+    }
+
+    @Test
+    void buildOnce() throws Exception {
+        Path root = Files.createTempDirectory("site");
+        SiteBuilder site = SiteBuilder.root(root);
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<String>> futures = new ArrayList();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return site.buildOnce("shared.js", () -> {
+                        count.incrementAndGet();
+                        return site.buildJSONP("nested.js", "nested");
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> future : futures) {
+                assert future.get().equals("nested.js");
+            }
+        }
+        assert count.get() == 1;
+        assert Files.readString(root.resolve("nested.js")).startsWith("const nested = ");
+    }
+
+    @Test
+    void buildOnceRetryAfterFailure() throws Exception {
+        SiteBuilder site = SiteBuilder.root(Files.createTempDirectory("site"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> site.buildOnce("fail.js", () -> {
+            throw new IllegalStateException();
+        }));
+        assert site.buildOnce("fail.js", () -> "fail.js").equals("fail.js");
+    }
+
+    @Test
+    void compress() throws Exception {
+        Path root = Files.createTempDirectory("site");
+        String large = "large contents ".repeat(200);
+
+        SiteBuilder site = SiteBuilder.root(root).cache(".javadng/build.cache").compress(1024, SiteBuilder.Encoding.GZIP, SiteBuilder.Encoding.DEFLATE);
+        site.build("large.js", new ByteArrayInputStream(large.getBytes()));
+        site.build("small.js", new ByteArrayInputStream("small".getBytes()));
+        site.build("large.txt", new ByteArrayInputStream(large.getBytes()));
+        site.complete();
+
+        assert Files.exists(root.resolve("large.js.gz"));
+        assert Files.exists(root.resolve("large.js.deflate"));
+        assert Files.notExists(root.resolve("small.js.gz"));
+        assert Files.notExists(root.resolve("large.txt.gz"));
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(root.resolve("large.js.gz")))) {
+            assert new String(input.readAllBytes()).equals(large);
+        }
+        try (InputStream input = new InflaterInputStream(Files.newInputStream(root.resolve("large.js.deflate")))) {
+            assert new String(input.readAllBytes()).equals(large);
+        }
+
+        // unchanged file is not recompressed
+        Files.write(root.resolve("large.js.gz"), "marker".getBytes());
+        site = SiteBuilder.root(root).cache(".javadng/build.cache").compress(1024, SiteBuilder.Encoding.GZIP);
+        site.build("large.js", new ByteArrayInputStream(large.getBytes()));
+        site.complete();
+        assert Files.readString(root.resolve("large.js.gz")).equals("marker");
+        assert Files.notExists(root.resolve("large.js.deflate"));
+
+        // changed file is recompressed
+        site = SiteBuilder.root(root).cache(".javadng/build.cache").compress(1024, SiteBuilder.Encoding.GZIP);
+        site.build("large.js", new ByteArrayInputStream((large + "changed").getBytes()));
+        site.complete();
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(root.resolve("large.js.gz")))) {
+            assert new String(input.readAllBytes()).equals(large + "changed");
+        }
+    }
+
+    /**
+     * Test page.
+     */
+    private static class Page extends HTML {
+
+        private final boolean streaming;
+
+        private Page(boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        @Override
+        public void declare() {
+            $("html", () -> {
+                $("body", () -> {
+                    $("h1", text("Title"));
+                    for (int i = 0; i < 3; i++) {
+                        int index = i;
+                        if (streaming) {
+                            stream(new Section(index));
+                        } else {
+                            $("section", attr("id", "s" + index), () -> {
+                                $("p", text("Section " + index + " <&>"));
+                                $("ul", () -> {
+                                    $("li", text("Item " + index));
+                                });
+                            });
+                        }
+                    }
+                    $("footer", text("Footer"));
+                });
+            });
+        }
+    }
+
+    /**
+     * Streamed component which contains the nested component.
+     */
+    private static class Section extends HTML {
+
+        private final int index;
+
+        private Section(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void declare() {
+            $("section", attr("id", "s" + index), () -> {
+                $("p", text("Section " + index + " <&>"));
+                stream(new Item(index));
+            });
+        }
+    }
+
+    /**
+     * Nested streamed component.
+     */
+    private static class Item extends HTML {
+
+        private final int index;
+
+        private Item(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void declare() {
+            $("ul", () -> {
+                $("li", text("Item " + index));
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run all benchmarks (or the benchmarks which match the specified patterns) and write the results
+ * as JSON into "target/benchmark/result.json" to compare them between releases.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder().resultFormat(ResultFormatType.JSON).result("target/benchmark/result.json");
+
+        if (args.length == 0) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+        } else {
+            for (String pattern : args) {
+                options.include(pattern);
+            }
+        }
+
+        Files.createDirectories(Path.of("target/benchmark"));
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import javadng.page.Javadoc;
+import javadng.page.JavadocModel;
+import kiss.I;
+import psychopath.Directory;
+
+/**
+ * The input generator for benchmarks.
+ */
+public final class Fixtures {
+
+    /** The location of the dummy fixtures. */
+    private static final Path DUMMY = Path.of("src/test/java/javadng/parser/dummy");
+
+    /**
+     * Copy the dummy fixtures into the isolated source directory.
+     * 
+     * @return A source root directory.
+     */
+    static Path dummy() {
+        try {
+            Path root = Files.createTempDirectory("benchmark");
+            Path dir = Files.createDirectories(root.resolve("javadng/parser/dummy"));
+            try (Stream<Path> files = Files.list(DUMMY)) {
+                for (Path file : files.toList()) {
+                    Files.copy(file, dir.resolve(file.getFileName()));
+                }
+            }
+            return root;
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Generate the large source directory.
+     * 
+     * @param types The number of types.
+     * @param members The number of documented members per type.
+     * @param markdown Use markdown comment or not.
+     * @return A source root directory.
+     */
+    static Path generate(int types, int members, boolean markdown) {
+        try {
+            Path root = Files.createTempDirectory("benchmark");
+            Path dir = Files.createDirectories(root.resolve("generated"));
+
+            for (int i = 0; i < types; i++) {
+                StringBuilder code = new StringBuilder();
+                code.append("package generated;\n\n");
+                code.append("import java.util.List;\n\n");
+                comment(code, "", markdown, i);
+                code.append("public class Type").append(i).append(i == 0 ? "" : " extends Type" + (i - 1)).append(" {\n\n");
+                for (int j = 0; j < members; j++) {
+                    comment(code, "    ", markdown, j);
+                    code.append("    public List<String> member").append(j).append("(String value, int... values) {\n");
+                    code.append("        return List.of(value);\n");
+                    code.append("    }\n\n");
+                }
+                code.append("}\n");
+
+                Files.writeString(dir.resolve("Type" + i + ".java"), code);
+            }
+            return root;
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Generate the independent deep hierarchies. Each hierarchy has the root interface and the
+     * chain of classes which extend the previous one.
+     * 
+     * @param width The number of hierarchies.
+     * @param depth The number of classes in each hierarchy.
+     * @return A source root directory.
+     */
+    public static Path hierarchy(int width, int depth) {
+        try {
+            Path root = Files.createTempDirectory("benchmark");
+            Path dir = Files.createDirectories(root.resolve("deep"));
+
+            for (int w = 0; w < width; w++) {
+                Files.writeString(dir.resolve("Root" + w + ".java"), "package deep; public interface Root" + w + " {}");
+                for (int d = 0; d < depth; d++) {
+                    String parent = d == 0 ? "implements Root" + w : "extends Type" + w + "_" + (d - 1);
+                    Files.writeString(dir.resolve("Type" + w + "_" + d + ".java"), "package deep; public class Type" + w + "_" + d + " " + parent + " {}");
+                }
+            }
+            return root;
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+    }
+
+    /**
+     * Write the documentation comment.
+     */
+    private static void comment(StringBuilder code, String indent, boolean markdown, int index) {
+        if (markdown) {
+            code.append(indent).append("/// Lorem ipsum dolor sit amet, consectetur **adipiscing** elit ").append(index).append(".\n");
+            code.append(indent).append("///\n");
+            code.append(indent).append("/// - Pellentesque vehicula `elit` id magna.\n");
+            code.append(indent).append("/// - Maecenas fermentum [List] lobortis dui.\n");
+            code.append(indent).append("///\n");
+            code.append(indent).append("/// | Name | Value |\n");
+            code.append(indent).append("/// |------|-------|\n");
+            code.append(indent).append("/// | one  | 1     |\n");
+        } else {
+            code.append(indent).append("/**\n");
+            code.append(indent).append(" * Lorem ipsum dolor sit amet, consectetur <b>adipiscing</b> elit ").append(index).append(".\n");
+            code.append(indent).append(" * <p>\n");
+            code.append(indent).append(" * <ul>\n");
+            code.append(indent).append(" * <li>Pellentesque vehicula <code>elit</code> id magna.</li>\n");
+            code.append(indent).append(" * <li>Maecenas fermentum {@link List} lobortis dui.</li>\n");
+            code.append(indent).append(" * </ul>\n");
+            code.append(indent).append(" */\n");
+        }
+    }
+
+    /**
+     * Scan the specified source directory.
+     * 
+     * @param root A source root directory.
+     * @return
+     */
+    static JavadocModel scan(Path root) {
+        return Javadoc.with.sources(root).output((Directory) null).product("benchmark").project("benchmark").version("1.0").listener(e -> {
+        }).build();
+    }
+}
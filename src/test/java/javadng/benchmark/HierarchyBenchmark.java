@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javadng.parser.ClassInfo;
+import javadng.parser.Data;
+
+/**
+ * Measure the sub-type linking over the synthetic deep hierarchies. The time per type should stay
+ * flat as the depth grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HierarchyBenchmark {
+
+    @Param({"30", "120"})
+    private int depth;
+
+    private Data data;
+
+    @Setup
+    public void setup() {
+        data = Fixtures.scan(Fixtures.hierarchy(20, depth)).data;
+    }
+
+    @Benchmark
+    public Data connectSubType() {
+        data.connectSubType();
+        return data;
+    }
+
+    @Benchmark
+    public int createSubTypes() {
+        int size = 0;
+        for (ClassInfo type : data.types) {
+            size += type.createSubTypes().size();
+        }
+        return size;
+    }
+}
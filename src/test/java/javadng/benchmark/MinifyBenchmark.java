@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javadng.SiteBuilder;
+import javadng.web.Minify;
+
+/**
+ * Measure the minification of the shipped scripts. The throughput per copy should stay flat as
+ * the number of copies grows, because the minifier runs in linear time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MinifyBenchmark {
+
+    @Param({"main.js", "mimic.js", "highlight.js"})
+    private String script;
+
+    @Param({"1", "10", "100"})
+    private int copies;
+
+    private String code;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream input = SiteBuilder.class.getResourceAsStream(script)) {
+            code = new String(input.readAllBytes(), StandardCharsets.UTF_8).repeat(copies);
+        }
+    }
+
+    @Benchmark
+    public String minify() {
+        return Minify.minify(code);
+    }
+
+    @Benchmark
+    public Writer stream() {
+        Writer writer = Writer.nullWriter();
+        Minify.minify(new StringReader(code), writer);
+        return writer;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javadng.parser.Data;
+
+/**
+ * Measure the whole scanning phase which parses all documentation comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanBenchmark {
+
+    private Path dummy;
+
+    private Path html;
+
+    private Path markdown;
+
+    @Setup
+    public void setup() {
+        dummy = Fixtures.dummy();
+        html = Fixtures.generate(50, 40, false);
+        markdown = Fixtures.generate(50, 40, true);
+    }
+
+    @Benchmark
+    public Data dummy() {
+        return Fixtures.scan(dummy).data;
+    }
+
+    @Benchmark
+    public Data htmlComment() {
+        return Fixtures.scan(html).data;
+    }
+
+    @Benchmark
+    public Data markdownComment() {
+        return Fixtures.scan(markdown).data;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javadng.HTML;
+import javadng.SiteBuilder;
+
+/**
+ * Measure the declaration and serialization of HTML page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SiteBuilderBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private SiteBuilder site;
+
+    @Setup
+    public void setup() throws Exception {
+        site = SiteBuilder.root(Files.createTempDirectory("benchmark"));
+    }
+
+    @Benchmark
+    public void buildHTML() {
+        site.buildHTML("page.html", new Page(rows));
+    }
+
+    /**
+     * The generated page.
+     */
+    private static class Page extends HTML {
+
+        private final int rows;
+
+        private Page(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void declare() {
+            $("html", () -> {
+                $("head", () -> {
+                    $("title", text("Benchmark"));
+                });
+                $("body", () -> {
+                    $("ul", () -> {
+                        for (int i = 0; i < rows; i++) {
+                            int index = i;
+                            $("li", attr("class", "row"), () -> {
+                                $("a", attr("href", "#row" + index), text("Row " + index + " & more"));
+                            });
+                        }
+                    });
+                });
+            });
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javadng.parser.SourceCode;
+
+/**
+ * Measure the formatting of the extracted source code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SourceCodeBenchmark {
+
+    @Param({"10", "1000"})
+    private int lines;
+
+    private String code;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("\r\n\r\n");
+        builder.append("        @Override\r\n");
+        for (int i = 0; i < lines; i++) {
+            builder.append("        ".repeat(1 + i % 3)).append("int value").append(i).append(" = ").append(i).append(";\r\n");
+        }
+        code = builder.append("\r\n").toString();
+    }
+
+    @Benchmark
+    public String stripHeaderWhitespace() {
+        return SourceCode.stripHeaderWhitespace(code);
+    }
+}
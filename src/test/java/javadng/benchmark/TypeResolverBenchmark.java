@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javadng.parser.TypeResolver;
+
+/**
+ * Measure the type name resolution which runs for every type reference in documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypeResolverBenchmark {
+
+    private static final String[] names = {"String", "Serializable", "InterfaceA", "InterfaceA[]", "List", "Unknown"};
+
+    private static final String[] types = {"java.lang.String", "javadng.parser.dummy.InterfaceA", "javadng.parser.dummy.Unknown"};
+
+    private TypeResolver resolver;
+
+    @Setup
+    public void setup() {
+        resolver = Fixtures.scan(Fixtures.dummy()).data.findByClassName("javadng.parser.dummy.InterfaceA").exact().getResolver();
+    }
+
+    @Benchmark
+    public void resolveFQCN(Blackhole hole) {
+        for (String name : names) {
+            hole.consume(resolver.resolveFQCN(name));
+        }
+    }
+
+    @Benchmark
+    public void resolveDocumentLocation(Blackhole hole) {
+        for (String type : types) {
+            hole.consume(resolver.resolveDocumentLocation(type));
+        }
+    }
+}
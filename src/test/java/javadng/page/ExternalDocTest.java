@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.page;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ExternalDocTest {
+
+    private static final String URL = "https://example.com/api/";
+
+    @Test
+    void elementList() {
+        Map<String, String> index = JavadocModel.parseExternalIndex(URL, """
+                module:java.base
+                java.io
+                java.lang
+                module:java.sql
+                java.sql
+                """);
+
+        assert index.size() == 3;
+        assert index.get("java.io").equals(URL + "java.base/");
+        assert index.get("java.lang").equals(URL + "java.base/");
+        assert index.get("java.sql").equals(URL + "java.sql/");
+    }
+
+    @Test
+    void packageList() {
+        Map<String, String> index = JavadocModel.parseExternalIndex(URL, "kiss\r\nkiss.model\r\n\r\n");
+
+        assert index.size() == 2;
+        assert index.get("kiss").equals(URL);
+        assert index.get("kiss.model").equals(URL);
+    }
+}
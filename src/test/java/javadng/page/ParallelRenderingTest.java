@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.page;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class ParallelRenderingTest {
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void identicalOutput() throws Exception {
+        Path root = Files.createTempDirectory("rendering");
+        Path dir = Files.createDirectories(root.resolve("render"));
+        Files.writeString(dir.resolve("Base.java"), "package render; /** The base. */ public class Base { /** Call. */ public void call() {} }");
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(dir.resolve("Type" + i + ".java"), "package render; /** Type " + i + ". */ public class Type" + i + " extends Base { /** Value. */ public int value; }");
+        }
+
+        Path sequential = Files.createTempDirectory("sequential");
+        Path parallel = Files.createTempDirectory("parallel");
+        build(root, sequential).build();
+        build(root, parallel).useParallelRendering().build();
+
+        List<Path> files = list(sequential);
+        assert !files.isEmpty();
+        assert files.equals(list(parallel));
+        for (Path file : files) {
+            assert Arrays.equals(Files.readAllBytes(sequential.resolve(file)), Files.readAllBytes(parallel.resolve(file))) : file;
+        }
+    }
+
+    /**
+     * Configure the build.
+     * 
+     * @param sources
+     * @param output
+     * @return
+     */
+    private Javadoc build(Path sources, Path output) {
+        return Javadoc.with.sources(sources).output(output).product("test").project("test").version("1.0").listener(e -> {
+        });
+    }
+
+    /**
+     * List up all files in the specified directory.
+     * 
+     * @param directory
+     * @return
+     */
+    private List<Path> list(Path directory) throws Exception {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).map(directory::relativize).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.page;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RelinkTest {
+
+    @Test
+    void module() {
+        assert JavadocModel.relink("import $ from\"./mimic.js\"", "mimic.js", "mimic.0123abcd.js").equals("import $ from\"./mimic.0123abcd.js\"");
+        assert JavadocModel.relink("import $ from './mimic.js'", "mimic.js", "mimic.0123abcd.js").equals("import $ from './mimic.0123abcd.js'");
+    }
+
+    @Test
+    void fragment() {
+        assert JavadocModel.relink("a=\"main.svg#x\",b='main.svg#y'", "main.svg", "main.0123abcd.svg")
+                .equals("a=\"main.0123abcd.svg#x\",b='main.0123abcd.svg#y'");
+    }
+
+    @Test
+    void missing() {
+        Assertions.assertThrows(Error.class, () -> JavadocModel.relink("import $ from\"./other.js\"", "mimic.js", "mimic.0123abcd.js"));
+    }
+}
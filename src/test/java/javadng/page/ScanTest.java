@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.page;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javadng.parser.SampleInfo;
+import psychopath.Directory;
+import psychopath.Locator;
+
+class ScanTest {
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void classify() throws Exception {
+        Path root = Files.createTempDirectory("scan");
+
+        // main sources
+        Path main = Files.createDirectories(root.resolve("main/shape"));
+        Files.writeString(main.resolve("Shape.java"), "package shape; public class Shape {}");
+        Files.writeString(main.resolve("Hidden.java"), "package shape; class Hidden {}");
+
+        // samples
+        Path sample = Files.createDirectories(root.resolve("sample/shape"));
+        Files.writeString(sample.resolve("ShapeTest.java"), """
+                package shape;
+                class ShapeTest {
+                    /** @see Shape */
+                    void create() {}
+                }
+                """);
+
+        // both main sources and samples
+        Path both = Files.createDirectories(root.resolve("both/circle"));
+        Files.writeString(both.resolve("Circle.java"), "package circle; public class Circle {}");
+        Files.writeString(both.resolve("CircleTest.java"), """
+                package circle;
+                public class CircleTest {
+                    /** @see Circle */
+                    public void draw() {}
+                }
+                """);
+
+        JavadocModel model = Javadoc.with.sources(main.getParent(), both.getParent())
+                .output((Directory) null)
+                .product("test")
+                .project("test")
+                .version("1.0")
+                .listener(e -> {
+                })
+                .sample(List.of(Locator.directory(sample.getParent()), Locator.directory(both.getParent())))
+                .build();
+
+        // the package-private main type is excluded
+        assert model.data.findByClassName("shape.Shape").isPresent();
+        assert model.data.findByClassName("shape.Hidden").isAbsent();
+
+        // the package-private sample is collected, but it is not documented as main type
+        assert model.data.findByClassName("shape.ShapeTest").isAbsent();
+        assert samples(model, "shape.Shape").size() == 1;
+        assert samples(model, "shape.Shape").get(0).code.contains("create");
+
+        // the file under both directories is registered once as main type and provides samples
+        assert model.data.types.stream().filter(type -> type.id().equals("circle.CircleTest")).count() == 1;
+        assert samples(model, "circle.Circle").size() == 1;
+        assert samples(model, "circle.Circle").get(0).code.contains("draw");
+    }
+
+    /**
+     * Collect all samples for the specified class.
+     * 
+     * @param model
+     * @param classID
+     * @return
+     */
+    private List<SampleInfo> samples(JavadocModel model, String classID) {
+        return model.samples.values().stream().flatMap(List::stream).filter(sample -> sample.classID.equals(classID)).toList();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javadng.benchmark.Fixtures;
+import javadng.page.Javadoc;
+import kiss.Disposable;
+import psychopath.Directory;
+
+class DataTest {
+
+    /** The number of independent hierarchies. */
+    private static final int WIDTH = 20;
+
+    /** The depth of each hierarchy. */
+    private static final int DEPTH = 30;
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void connectSubTypeOnDeepHierarchy() throws Exception {
+        Data data = scan(Fixtures.hierarchy(WIDTH, DEPTH));
+
+        assert data.types.size() == WIDTH * (DEPTH + 1);
+        for (ClassInfo type : data.types) {
+            if (type.name.startsWith("Root")) {
+                assert type.createSubTypes().size() == DEPTH;
+            } else {
+                int depth = Integer.parseInt(type.name.substring(type.name.indexOf('_') + 1));
+                assert type.createSubTypes().size() == DEPTH - depth - 1;
+            }
+        }
+    }
+
+    @Test
+    void index() throws Exception {
+        Path root = Files.createTempDirectory("index");
+        Path dir = Files.createDirectories(root.resolve("index/sub"));
+        Files.writeString(dir.getParent().resolve("A.java"), "package index; public class A {}");
+        Files.writeString(dir.getParent().resolve("B.java"), """
+                package index;
+                public class B {
+                    public String field;
+                    public B() {}
+                    public B(int value) {}
+                    public void call() {}
+                    public void call(int value) {}
+                    public void call(String value) {}
+                    public void call(String[] values) {}
+                    public void vararg(String... values) {}
+                }
+                """);
+        Files.writeString(dir.resolve("C.java"), "package index.sub; public class C {}");
+
+        Data data = scan(root);
+        assert data.packages.equals(List.of("index", "index.sub"));
+        assert data.findByPackage("index").size() == 2;
+        assert data.findByPackage("index.sub").size() == 1;
+        assert data.findByPackage("unknown").isEmpty();
+        assert data.findByClassName("index.A").isPresent();
+        assert data.findByClassName("index.Unknown").isAbsent();
+
+        ClassInfo info = data.findByClassName("index.B").exact();
+        assert info.findByMethodSignature("call").exact().id().equals("call()");
+        assert info.findByMethodSignature("call", int.class).exact().id().equals("call(int)");
+        assert info.findByMethodSignature("call", String.class).exact().id().equals("call(java.lang.String)");
+        assert info.findByMethodSignature("call", String[].class).exact().id().equals("call(java.lang.String[])");
+        assert info.findByMethodSignature("call", long.class).isAbsent();
+        assert info.findByMethodSignature("vararg", String[].class).exact().id().equals("vararg(java.lang.String...)");
+        assert info.findByMethodSignature("vararg").exact().id().equals("vararg(java.lang.String...)");
+        assert info.findByMemberId("field").isPresent();
+        assert info.findByMemberId("B(int)").isPresent();
+
+        Data.Navigation navigation = data.navigation();
+        assert navigation.packages.size() == 2;
+        assert navigation.packages.get(0).name.equals("index");
+        assert navigation.packages.get(0).size == 2;
+        assert navigation.packages.get(0).kinds.equals(List.of("Class"));
+        assert data.pack("index").types.stream().map(type -> type.name).toList().equals(List.of("A", "B"));
+
+        data.remove(data.findByClassName("index.sub.C").exact());
+        assert data.packages.equals(List.of("index"));
+        assert data.findByClassName("index.sub.C").isAbsent();
+        assert data.findByPackage("index.sub").isEmpty();
+    }
+
+    @Test
+    void connectSubTypeTwice() throws Exception {
+        Path root = Files.createTempDirectory("subtype");
+        Path dir = Files.createDirectories(root.resolve("sub"));
+        Files.writeString(dir.resolve("A.java"), "package sub; public class A {}");
+        Files.writeString(dir.resolve("B.java"), "package sub; public class B extends A {}");
+
+        Data data = scan(root);
+        ClassInfo info = data.findByClassName("sub.A").exact();
+        assert info.createSubTypes().size() == 1;
+
+        // relinking doesn't duplicate
+        data.connectSubType();
+        assert info.createSubTypes().size() == 1;
+
+        data.remove(data.findByClassName("sub.B").exact());
+        data.connectSubType();
+        assert info.createSubTypes().isEmpty();
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void modules() throws Exception {
+        Path root = Files.createTempDirectory("modules");
+        Path first = Files.createDirectories(root.resolve("first/one"));
+        Files.writeString(first.getParent().resolve("module-info.java"), "module one { exports one; }");
+        Files.writeString(first.resolve("A.java"), "package one; public class A {}");
+        Path second = Files.createDirectories(root.resolve("second/two"));
+        Files.writeString(second.getParent().resolve("module-info.java"), "module two { requires one; exports two; }");
+        Files.writeString(second.resolve("B.java"), "package two; public class B extends one.A {}");
+
+        Data data = Javadoc.with.sources(first.getParent(), second.getParent())
+                .output((Directory) null)
+                .product("test")
+                .project("test")
+                .version("1.0")
+                .listener(e -> {
+                })
+                .build().data;
+
+        assert data.modules.size() == 2;
+        assert data.modules.containsAll(List.of("one", "two"));
+        assert data.findByModule("one").equals(Set.of("one"));
+        assert data.findByModule("two").equals(Set.of("two"));
+        assert data.findByClassName("one.A").exact().moduleName.equals("one");
+        assert data.findByClassName("two.B").exact().moduleName.equals("two");
+        assert data.findByClassName("one.A").exact().createSubTypes().size() == 1;
+        assert data.module("two").types.size() == 1;
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void modulesWithError() throws Exception {
+        Path root = Files.createTempDirectory("modules");
+        Path first = Files.createDirectories(root.resolve("first/one"));
+        Files.writeString(first.getParent().resolve("module-info.java"), "module one { exports one; }");
+        Files.writeString(first.resolve("A.java"), "package one; public class A {}");
+        Path second = Files.createDirectories(root.resolve("second/two"));
+        Files.writeString(second.getParent().resolve("module-info.java"), "module two { exports two; }");
+        Files.writeString(second.resolve("B.java"), "package two; public class B extends {}");
+
+        // the failed run never blocks the others, and nothing is merged
+        Data data = Javadoc.with.sources(first.getParent(), second.getParent())
+                .output((Directory) null)
+                .product("test")
+                .project("test")
+                .version("1.0")
+                .listener(e -> {
+                })
+                .build().data;
+
+        assert data.types.isEmpty();
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void parallelBuilds() throws Exception {
+        List<Path> roots = new ArrayList();
+        for (int i = 0; i < 4; i++) {
+            Path root = Files.createTempDirectory("parallel");
+            Path dir = Files.createDirectories(root.resolve("project" + i));
+            Files.writeString(dir.resolve("Base.java"), "package project" + i + "; public class Base {}");
+            for (int j = 0; j < 20; j++) {
+                Files.writeString(dir.resolve("Type" + j + ".java"), "package project" + i + "; public class Type" + j + " extends Base {}");
+            }
+            roots.add(root);
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(roots.size())) {
+            List<CompletableFuture<Data>> builds = new ArrayList();
+            for (Path root : roots) {
+                builds.add(CompletableFuture.supplyAsync(() -> scan(root), executor));
+            }
+
+            for (int i = 0; i < builds.size(); i++) {
+                Data data = builds.get(i).join();
+                assert data.packages.equals(List.of("project" + i));
+                assert data.types.size() == 21;
+                assert data.findByClassName("project" + i + ".Base").exact().createSubTypes().size() == 20;
+            }
+        }
+    }
+
+    /**
+     * Scan the specified source directory.
+     * 
+     * @param root
+     * @return
+     */
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void watchRetiresOldRuns() throws Exception {
+        Path root = Files.createTempDirectory("watch");
+        Path dir = Files.createDirectories(root.resolve("watch"));
+        for (int i = 0; i < 3; i++) {
+            Files.writeString(dir.resolve("Type" + i + ".java"), "package watch; public class Type" + i + " {}");
+        }
+
+        BlockingQueue<String> messages = new LinkedBlockingQueue();
+        Javadoc model = Javadoc.with.sources(root).output((Directory) null).product("test").project("test").version("1.0").listener(e -> {
+            if ("watch".equals(e.getCode())) messages.add(e.getMessage(null));
+        });
+
+        Disposable watching = model.watch();
+        try {
+            for (int i = 0; i < 8; i++) {
+                int index = i % 3;
+                Files.writeString(dir.resolve("Type" + index + ".java"), "package watch; public class Type" + index + " { public void m" + i + "() {} }");
+                assert messages.take().startsWith("Updated");
+
+                assert model.data.types.size() == 3;
+                assert model.data.findByClassName("watch.Type" + index).exact().findByMemberId("m" + i + "()").isPresent();
+
+                // the unchanged infos don't keep all the older javac runs alive
+                assert model.data.types.stream().map(type -> type.context).distinct().count() <= 4;
+            }
+        } finally {
+            watching.dispose();
+        }
+    }
+
+    private Data scan(Path root) {
+        return Javadoc.with.sources(root).output((Directory) null).product("test").project("test").version("1.0").listener(e -> {
+        }).build().data;
+    }
+}
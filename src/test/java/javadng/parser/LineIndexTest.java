@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import org.junit.jupiter.api.Test;
+
+class LineIndexTest {
+
+    @Test
+    void empty() {
+        LineIndex index = new LineIndex("");
+        assert index.lines() == 1;
+        assert index.line(0) == 1;
+    }
+
+    @Test
+    void line() {
+        LineIndex index = new LineIndex("one\ntwo\r\nthree\n");
+        assert index.lines() == 4;
+        assert index.line(0) == 1;
+        assert index.line(3) == 1;
+        assert index.line(4) == 2;
+        assert index.line(8) == 2;
+        assert index.line(9) == 3;
+        assert index.line(15) == 4;
+    }
+
+    @Test
+    void sameAsLinearScan() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("line ".repeat(i % 7)).append('\n');
+        }
+
+        LineIndex index = new LineIndex(text);
+        int line = 1;
+        for (int i = 0; i < text.length(); i++) {
+            assert index.line(i) == line;
+            if (text.charAt(i) == '\n') line++;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+
+class SourceFileTest {
+
+    @Test
+    void cache() throws Exception {
+        Path path = Files.createTempFile("Sample", ".java");
+        Files.writeString(path, "class Sample { void one() {} }");
+
+        SourceFile file = SourceFile.of(path);
+        assert file == SourceFile.of(path);
+        assert file.lines.length == 1;
+
+        Files.writeString(path, "class Sample {\n void two() {}\n}");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10000));
+
+        SourceFile updated = SourceFile.of(path);
+        assert updated != file;
+        assert updated.lines.length == 3;
+        assert updated.scope(updated.root).methods.containsKey("two()");
+    }
+
+    @Test
+    void scope() throws Exception {
+        Path path = Files.createTempFile("Sample", ".java");
+        Files.writeString(path, """
+                package sample;
+                class Sample {
+                    int field, other;
+                    void call() {}
+                    void call(int value) {}
+                    record Point(int x) {}
+                    class Inner {
+                        void call() {}
+                        void inner() {}
+                    }
+                }
+                """);
+
+        SourceFile file = SourceFile.of(path);
+        SourceFile.Scope scope = file.scope(file.root);
+        assert scope.types.containsKey("Sample");
+        assert scope.types.containsKey("Inner");
+        assert scope.records.containsKey("Point");
+        assert scope.fields.containsKey("field");
+        assert scope.fields.containsKey("other");
+        assert scope.methods.containsKey("call(int)");
+        assert scope.methods.containsKey("inner()");
+
+        // first match in pre-order
+        assert scope.methods.get("call()").getParentNode().get() == scope.types.get("Sample");
+
+        // the nested scope
+        SourceFile.Scope inner = file.scope(scope.types.get("Inner"));
+        assert inner == file.scope(scope.types.get("Inner"));
+        assert inner.methods.get("call()").getParentNode().get() == scope.types.get("Inner");
+        assert !inner.methods.containsKey("call(int)");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolIndexTest {
+
+    @Test
+    void humps() {
+        assert SymbolIndex.humps("getByName").equals("gbn");
+        assert SymbolIndex.humps("HTMLParser").equals("hp");
+        assert SymbolIndex.humps("MAX_VALUE").equals("mv");
+        assert SymbolIndex.humps("Outer.mapTo").equals("mt");
+        assert SymbolIndex.humps("map").equals("m");
+    }
+
+    @Test
+    void key() {
+        assert SymbolIndex.key("mapTo").equals("mapto");
+        assert SymbolIndex.key("Outer.Inner").equals("inner");
+    }
+
+    @Test
+    void frontCoding() {
+        SymbolIndex index = new SymbolIndex();
+        index.add("Class", "Signal", "kiss", "");
+        index.add("Method", "map", "kiss.Signal", "map(java.util.function.Function)");
+        index.add("Method", "mapTo", "kiss.Signal", "mapTo(java.lang.Object)");
+        index.add("Method", "getByName", "kiss.I", "getByName(java.lang.String)");
+
+        List<SymbolIndex.Shard> shards = index.shards();
+        assert shards.size() == 1;
+        assert shards.get(0).keys.equals("0gbn\n1etbyname\n0map\n3to\n1t\n0signal");
+        assert SymbolIndex.decode(shards.get(0).keys).equals(List.of("gbn", "getbyname", "map", "mapto", "mt", "signal"));
+        assert shards.get(0).symbols.split("\n")[3].equals("Method\tmapTo\tkiss.Signal\tmapTo(java.lang.Object)");
+    }
+
+    @Test
+    void shards() {
+        SymbolIndex index = new SymbolIndex(10);
+        for (int i = 0; i < 95; i++) {
+            index.add("Field", "value" + i, "test.Type", "value" + i);
+        }
+        assert index.size() == 95;
+
+        List<SymbolIndex.Shard> shards = index.shards();
+        assert shards.size() == 10;
+
+        SymbolIndex.Manifest manifest = index.manifest();
+        assert manifest.size == 95;
+        assert manifest.shards.size() == 10;
+
+        List<String> keys = new ArrayList();
+        for (int i = 0; i < shards.size(); i++) {
+            List<String> decoded = SymbolIndex.decode(shards.get(i).keys);
+            assert decoded.get(0).equals(manifest.shards.get(i));
+            keys.addAll(decoded);
+        }
+        assert keys.size() == 95;
+        assert keys.stream().sorted().toList().equals(keys);
+    }
+
+    @Test
+    void longSharedPrefix() {
+        String name = "a".repeat(50);
+        SymbolIndex index = new SymbolIndex();
+        index.add("Method", name + "One", "test.Type", name + "One()");
+        index.add("Method", name + "Two", "test.Type", name + "Two()");
+
+        List<String> keys = SymbolIndex.decode(index.shards().get(0).keys);
+        assert keys.contains(name + "one");
+        assert keys.contains(name + "two");
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.repository;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import javadng.web.WebCache;
+
+class GithubTest {
+
+    private static final String API = "https://api.github.com/repos/owner/project";
+
+    @Test
+    void seeded() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        WebCache cache = new WebCache(directory, Duration.ofMinutes(10), true);
+        cache.seed(API, Files.writeString(directory.resolve("repo.json"), "{\"default_branch\": \"develop\"}"));
+        cache.seed(API + "/releases/latest", Files.writeString(directory.resolve("release.json"), "{\"published_at\": \"2024-05-01T12:34:56Z\"}"));
+        cache.seed("https://raw.githubusercontent.com/owner/project/develop/CHANGELOG.md", Files
+                .writeString(directory.resolve("CHANGELOG.md"), "# Changelog"));
+
+        CodeRepository repository = CodeRepository.of(URI.create("https://github.com/owner/project"), cache);
+        assert repository.locate().equals("https://github.com/owner/project");
+        assert repository.locateChangeLog().equals("https://raw.githubusercontent.com/owner/project/develop/CHANGELOG.md");
+        assert repository.getLatestPublishedDate().equals("2024-05-01");
+        assert repository.getChangeLogText().exact().equals("# Changelog");
+    }
+
+    @Test
+    void offlineWithoutCache() throws IOException {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ofMinutes(10), true);
+
+        CodeRepository repository = CodeRepository.of(URI.create("https://github.com/owner/project"), cache);
+        assert repository.locateChangeLog().equals("https://raw.githubusercontent.com/owner/project/main/CHANGELOG.md");
+        assert repository.getLatestPublishedDate().length() == 10;
+        assert repository.getChangeLogText().isAbsent();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.web;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class CodeHighlighterTest {
+
+    private HttpServer server;
+
+    private String base;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger missings = new AtomicInteger();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort() + "/11.7.0/";
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/unknown.min.js")) {
+            missings.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            byte[] bytes = ("const hljsGrammar = '" + path + "'; export default hljsGrammar").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    @Test
+    void remote() throws IOException {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ofDays(1), false);
+
+        CodeHighlighter highlighter = new CodeHighlighter();
+        highlighter.useRemoteGrammars(base, cache);
+        highlighter.addLanguage("java");
+        highlighter.addLanguage("css");
+        highlighter.addLanguage("unknown");
+
+        List<String> grammars = highlighter.build();
+        assert grammars.size() == 2;
+        assert grammars.get(0).equals("const hljsGrammar = '/11.7.0/css.min.js'; J.registerLanguage('css', hljsGrammar)");
+        assert grammars.get(1).equals("const hljsGrammar = '/11.7.0/java.min.js'; J.registerLanguage('java', hljsGrammar)");
+        assert requests.get() == 3;
+        assert missings.get() == 1;
+
+        // cached (the missing grammar is also cached)
+        highlighter.build();
+        assert requests.get() == 3;
+        assert missings.get() == 1;
+    }
+
+    @Test
+    void local() throws IOException {
+        Path directory = Files.createTempDirectory("grammars");
+        Files.writeString(directory.resolve("java.min.js"), "local; export default hljsGrammar");
+
+        CodeHighlighter highlighter = new CodeHighlighter();
+        highlighter.useRemoteGrammars(base, new WebCache(Files.createTempDirectory("cache"), Duration.ofDays(1), false));
+        highlighter.useLocalGrammars(directory);
+        highlighter.addLanguage("java");
+
+        List<String> grammars = highlighter.build();
+        assert grammars.size() == 1;
+        assert grammars.get(0).equals("local; J.registerLanguage('java', hljsGrammar)");
+        assert requests.get() == 0;
+    }
+}
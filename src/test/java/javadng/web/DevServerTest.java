@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.web;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DevServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private Path root;
+
+    private DevServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        root = Files.createTempDirectory("site");
+        server = DevServer.start(root, 0, "/application/");
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private HttpResponse<byte[]> get(String path, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.locate(path)));
+        if (headers.length != 0) request.headers(headers);
+        return client.send(request.build(), BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    void text() throws Exception {
+        Files.writeString(root.resolve("index.html"), "<html/>");
+
+        HttpResponse<byte[]> response = get("index.html");
+        assert response.statusCode() == 200;
+        assert new String(response.body()).equals("<html/>");
+        assert response.headers().firstValue("Content-Type").get().startsWith("text/html");
+        assert response.headers().firstValue("ETag").isPresent();
+        assert response.headers().firstValue("Last-Modified").isPresent();
+
+        // directory index
+        assert get("").statusCode() == 200;
+    }
+
+    @Test
+    void binary() throws Exception {
+        byte[] bytes = new byte[70000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        Files.write(root.resolve("image.png"), bytes);
+
+        HttpResponse<byte[]> response = get("image.png");
+        assert response.statusCode() == 200;
+        assert Arrays.equals(response.body(), bytes);
+        assert response.headers().firstValue("Content-Type").get().equals("image/png");
+    }
+
+    @Test
+    void notModified() throws Exception {
+        Files.writeString(root.resolve("main.css"), "body {}");
+
+        HttpResponse<byte[]> response = get("main.css");
+        String etag = response.headers().firstValue("ETag").get();
+        String modified = response.headers().firstValue("Last-Modified").get();
+
+        assert get("main.css", "If-None-Match", etag).statusCode() == 304;
+        assert get("main.css", "If-None-Match", "\"other\"").statusCode() == 200;
+        assert get("main.css", "If-Modified-Since", modified).statusCode() == 304;
+    }
+
+    @Test
+    void gzip() throws Exception {
+        Files.writeString(root.resolve("main.js"), "plain");
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write("compressed".getBytes());
+        }
+        Files.write(root.resolve("main.js.gz"), compressed.toByteArray());
+
+        HttpResponse<byte[]> response = get("main.js", "Accept-Encoding", "gzip");
+        assert response.headers().firstValue("Content-Encoding").get().equals("gzip");
+        assert Arrays.equals(response.body(), compressed.toByteArray());
+
+        response = get("main.js");
+        assert response.headers().firstValue("Content-Encoding").isEmpty();
+        assert new String(response.body()).equals("plain");
+    }
+
+    @Test
+    void live() throws Exception {
+        Files.writeString(root.resolve("index.html"), "1");
+        Files.writeString(root.resolve("same.html"), "same");
+        // the trigger file is never written, detect changes manually
+        server.live("/live", "trigger");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.locate("").replace("/application/", "/live"))).build();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(client.send(request, BodyHandlers.ofInputStream()).body()));
+        assert reader.readLine().equals(": connected");
+        assert reader.readLine().isEmpty();
+
+        // rewritten but identical file is not reported
+        Files.writeString(root.resolve("same.html"), "same");
+        Files.writeString(root.resolve("index.html"), "2");
+        Files.writeString(root.resolve("added.html"), "added");
+
+        // the files written by the build only are not reported
+        Files.createDirectories(root.resolve(".javadng"));
+        Files.writeString(root.resolve(".javadng/build.cache"), "cache");
+        Files.writeString(root.resolve("index.html.gz.tmp"), "temporary");
+        Files.writeString(root.resolve("index.html.gz"), "variant");
+        server.notifyChanges();
+
+        assert reader.readLine().equals("event: change");
+        assert reader.readLine().equals("data: [\"added.html\",\"index.html\"]");
+    }
+
+    @Test
+    void notFound() throws Exception {
+        assert get("missing.html").statusCode() == 404;
+        assert get("../outside.html").statusCode() == 404;
+    }
+}
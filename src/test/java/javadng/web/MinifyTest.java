@@ -9,6 +9,9 @@
  */
 package javadng.web;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+
 import org.junit.jupiter.api.Test;
 
 class MinifyTest {
@@ -186,4 +189,150 @@ class MinifyTest {
                 b
                 """).equals("a,b");
     }
-}
\ No newline at end of file
+
+    @Test
+    void regex() {
+        assert Minify.minify("a = /ab+c/g;").equals("a=/ab+c/g;");
+        assert Minify.minify("a = / b /;").equals("a=/ b /;");
+        assert Minify.minify("a = /[/]/.test(b)").equals("a=/[/]/.test(b)");
+        assert Minify.minify("a = /\\/ b/").equals("a=/\\/ b/");
+        assert Minify.minify("return / b /g").equals("return/ b /g");
+    }
+
+    @Test
+    void regexIsNotComment() {
+        assert Minify.minify("a = /[/*]/; b").equals("a=/[/*]/;b");
+    }
+
+    @Test
+    void regexAtEndOfLine() {
+        assert Minify.minify("""
+                a = /b/
+                c()
+                """).equals("a=/b/\nc()");
+    }
+
+    @Test
+    void division() {
+        assert Minify.minify("a = b / c / d").equals("a=b/c/d");
+        assert Minify.minify("(a) / 2 / (b)").equals("(a)/2/(b)");
+        assert Minify.minify("a[0] / 2").equals("a[0]/2");
+    }
+
+    @Test
+    void templateLiteral() {
+        assert Minify.minify("a = `  b  ;  {  `").equals("a=`  b  ;  {  `");
+        assert Minify.minify("a = `b\n  c`").equals("a=`b\n  c`");
+        assert Minify.minify("a = `\\` ${ b }`").equals("a=`\\` ${b}`");
+    }
+
+    @Test
+    void templateLiteralExpression() {
+        assert Minify.minify("`a ${ b + c } d`").equals("`a ${b+c} d`");
+        assert Minify.minify("`a ${ { b: 1 }.b } c`").equals("`a ${{b:1}.b} c`");
+        assert Minify.minify("`a ${ `b ${ c }  ` }`").equals("`a ${`b ${c}  `}`");
+    }
+
+    @Test
+    void unaryOperator() {
+        assert Minify.minify("a + +b").equals("a+ +b");
+        assert Minify.minify("a - -b").equals("a- -b");
+        assert Minify.minify("a + -b").equals("a+-b");
+    }
+
+    @Test
+    void lineBreakBeforeIncrement() {
+        assert Minify.minify("""
+                a = b
+                ++c
+                """).equals("a=b\n++c");
+    }
+
+    @Test
+    void lineBreakBeforeNot() {
+        assert Minify.minify("""
+                a
+                !b
+                """).equals("a\n!b");
+        assert Minify.minify("""
+                return
+                !x
+                """).equals("return\n!x");
+    }
+
+    @Test
+    void lineBreakBeforeTilde() {
+        assert Minify.minify("""
+                t = q
+                ~q
+                """).equals("t=q\n~q");
+    }
+
+    @Test
+    void lineBreakBeforeParenthesis() {
+        assert Minify.minify("""
+                a = b
+                (c || d).call()
+                """).equals("a=b\n(c||d).call()");
+    }
+
+    @Test
+    void lineBreakBeforeSquareBracket() {
+        assert Minify.minify("""
+                a = b
+                [c, d] = e
+                """).equals("a=b\n[c,d]=e");
+    }
+
+    @Test
+    void lineBreakBeforeBrace() {
+        assert Minify.minify("""
+                a = b
+                { c() }
+                """).equals("a=b\n{c()}");
+    }
+
+    @Test
+    void lineBreakBeforeTemplateLiteral() {
+        assert Minify.minify("""
+                a
+                `x`
+                """).equals("a\n`x`");
+        assert Minify.minify("tag `x`").equals("tag`x`");
+    }
+
+    @Test
+    void blockCommentIsWhitespace() {
+        assert Minify.minify("let/**/x").equals("let x");
+        assert Minify.minify("a/**/+/**/b").equals("a+b");
+        assert Minify.minify("return/*\n*/x").equals("return\nx");
+    }
+
+    @Test
+    void lineCommentKeepsLineBreak() {
+        assert Minify.minify("""
+                a // comment
+                b
+                """).equals("a\nb");
+    }
+
+    @Test
+    void carriageReturn() {
+        assert Minify.minify("a\r\nb\rc").equals("a\nb\nc");
+    }
+
+    @Test
+    void longWhitespace() {
+        assert Minify.minify("a" + " ".repeat(100000) + "b" + "\n".repeat(100000)).equals("a b");
+    }
+
+    @Test
+    void stream() {
+        // the input is larger than the internal buffer
+        String code = "var a = 0;\n".repeat(10000);
+
+        StringWriter writer = new StringWriter();
+        Minify.minify(new StringReader(code), writer);
+        assert writer.toString().equals("var a=0;".repeat(10000));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 The JAVADNG Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package javadng.web;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kiss.Variable;
+
+class WebCacheTest {
+
+    private HttpServer server;
+
+    private String base;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger revalidations = new AtomicInteger();
+
+    private volatile String body = "version1";
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+
+        if (exchange.getRequestURI().getPath().equals("/missing")) {
+            exchange.sendResponseHeaders(404, -1);
+        } else if (("\"" + body + "\"").equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            revalidations.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"" + body + "\"");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    @Test
+    void fresh() throws IOException {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ofDays(1), false);
+        assert cache.text(base + "file").exact().equals("version1");
+        assert cache.text(base + "file").exact().equals("version1");
+        assert requests.get() == 1;
+    }
+
+    @Test
+    void revalidate() throws IOException {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ZERO, false);
+        assert cache.text(base + "file").exact().equals("version1");
+        assert cache.text(base + "file").exact().equals("version1");
+        assert requests.get() == 2;
+        assert revalidations.get() == 1;
+
+        body = "version2";
+        assert cache.text(base + "file").exact().equals("version2");
+    }
+
+    @Test
+    void missing() throws IOException {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ofDays(1), false);
+        assert cache.text(base + "missing").isAbsent();
+    }
+
+    @Test
+    void missingIsCached() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        assert new WebCache(directory, Duration.ofDays(1), false).text(base + "missing").isAbsent();
+        assert new WebCache(directory, Duration.ofDays(1), false).text(base + "missing").isAbsent();
+        assert requests.get() == 1;
+
+        // expired, ask again
+        assert new WebCache(directory, Duration.ZERO, false).text(base + "missing").isAbsent();
+        assert requests.get() == 2;
+    }
+
+    @Test
+    void sharedLock() throws Exception {
+        WebCache cache = new WebCache(Files.createTempDirectory("cache"), Duration.ofDays(1), false);
+        WebCache derived = cache.ttl(Duration.ofDays(2));
+
+        List<CompletableFuture<Variable<String>>> reads = new ArrayList();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                WebCache target = i % 2 == 0 ? cache : derived;
+                reads.add(CompletableFuture.supplyAsync(() -> target.text(base + "file"), executor));
+            }
+            for (CompletableFuture<Variable<String>> read : reads) {
+                assert read.join().exact().equals("version1");
+            }
+        }
+        assert requests.get() == 1;
+    }
+
+    @Test
+    void stale() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        assert new WebCache(directory, Duration.ZERO, false).text(base + "file").exact().equals("version1");
+
+        server.stop(0);
+        assert new WebCache(directory, Duration.ZERO, false).text(base + "file").exact().equals("version1");
+    }
+
+    @Test
+    void offline() throws IOException {
+        Path directory = Files.createTempDirectory("cache");
+        WebCache cache = new WebCache(directory, Duration.ZERO, true);
+        assert cache.text(base + "file").isAbsent();
+        assert requests.get() == 0;
+
+        Path seed = Files.writeString(directory.resolve("seed.txt"), "seeded");
+        cache.seed(base + "file", seed);
+        assert cache.text(base + "file").exact().equals("seeded");
+        assert requests.get() == 0;
+    }
+}